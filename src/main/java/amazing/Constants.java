@@ -39,6 +39,8 @@ public class Constants {
     public static final String SCALE_KEY = "amazing.scale";
     public static final String SAVE_DIR_KEY = "amazing.save.dir";
     public static final String FILE_FORMAT_KEY = "amazing.save.format";
+    public static final String BUDGET_KEY = "amazing.build.budget";
+    public static final String PARALLEL_KEY = "amazing.build.parallel";
 
     // Properties for display configuration
     public static final String PAUSE_MIN_KEY = "amazing.display.pause.min";
@@ -47,6 +49,8 @@ public class Constants {
     public static final String ZOOM_KEY = "amazing.display.zoom";
     public static final String FULLSCREEN_KEY = "amazing.display.fullscreen";
     public static final String MESSAGES_KEY = "amazing.display.messages";
+    public static final String EVOLVE_KEY = "amazing.display.evolve";
+    public static final String CARVE_KEY = "amazing.display.carve";
 
     /** Default save directory in {@code user.home} */
     public static final String SAVE_DIR = "Amazing";
@@ -170,6 +174,14 @@ public class Constants {
         return propertyFlag(ZOOM_KEY, true);
     }
 
+    public static boolean evolve() {
+        return propertyFlag(EVOLVE_KEY, false);
+    }
+
+    public static boolean carve() {
+        return propertyFlag(CARVE_KEY, false);
+    }
+
     public static boolean watermark() {
         return propertyFlag(WATERMARK_KEY, true);
     }
@@ -189,4 +201,18 @@ public class Constants {
         }
         return format;
     }
-}
\ No newline at end of file
+
+    /**
+     * Time budget for building a maze, in milliseconds, or zero for none.
+     */
+    public static long budget() {
+        return Long.getLong(BUDGET_KEY, 0L);
+    }
+
+    /**
+     * Whether the row generators carve and link large grids in parallel.
+     */
+    public static boolean parallel() {
+        return propertyFlag(PARALLEL_KEY, false);
+    }
+}
@@ -24,6 +24,7 @@ import static amazing.Constants.SEED_KEY;
 import static amazing.Constants.SAVE_DIR;
 import static amazing.Constants.SAVE_DIR_KEY;
 import static amazing.Constants.TIMESTAMP;
+import static amazing.Constants.parallel;
 
 import java.awt.Color;
 import java.awt.Toolkit;
@@ -51,10 +52,14 @@ import amazing.Constants.Properties;
 import amazing.generator.AldousBroder;
 import amazing.generator.BinaryTree;
 import amazing.generator.Generator;
+import amazing.generator.GrowingTree;
 import amazing.generator.Kruskals;
 import amazing.generator.RecursiveBacktracker;
 import amazing.generator.Sidewinder;
+import amazing.grid.Cell;
 import amazing.grid.Grid;
+import amazing.grid.GridView;
+import amazing.grid.Neighbours;
 
 public class Utils {
     /** Random number generator */
@@ -68,8 +73,8 @@ public class Utils {
 
     /** Weighted list of {@link Generator maze generator} algorithms */
     public static final List<Generator<?>> GENERATORS = List.of(
-        new BinaryTree<>(),
-        new Sidewinder<>(),
+        new BinaryTree<>().parallel(parallel()),
+        new Sidewinder<>().parallel(parallel()),
         new AldousBroder<>(),
         new AldousBroder<>(),
         new RecursiveBacktracker<>(),
@@ -77,7 +82,9 @@ public class Utils {
         new Kruskals<>(),
         new Kruskals<>(),
         new Kruskals<>(),
-        new Kruskals<>()
+        new Kruskals<>(),
+        new GrowingTree<>(),
+        new GrowingTree<>(GrowingTree.RANDOM, "Random")
     );
 
     public static int random(int max) {
@@ -114,6 +121,13 @@ public class Utils {
         return sample;
     }
 
+    /**
+     * Sample a random {@link Cell cell} from a {@link Neighbours buffer} without copying it.
+     */
+    public static <C extends Cell<C>> C sample(Neighbours<C> neighbours) {
+        return neighbours.sample(RANDOM);
+    }
+
     /**
      * Generate a string representation of the current time. 
      */
@@ -249,7 +263,7 @@ public class Utils {
         } else return Boolean.parseBoolean(System.getProperty(flag, Boolean.toString(def)));
     }
 
-    public static String title(Grid<?> grid) {
+    public static String title(GridView<?> grid) {
         return String.format("%s / (%dx%d) %s%s%s%s%s",
                 grid.getMetadataString(Grid.GENERATOR),
                 grid.getColumns(), grid.getRows(),
@@ -257,7 +271,7 @@ public class Utils {
                 grid.hasMetadata(Grid.LOOPED) ? String.format("/ loop*%d ", grid.getMetadataInteger(Grid.LOOPED)) : "",
                 grid.hasMetadata(Grid.CULLED) ? String.format("/ cull-%.1f*%d ", grid.getCulling(), grid.getMetadataInteger(Grid.CULLED)) : "",
                 grid.hasMetadata(Grid.BRAIDED) ? String.format("/ braid~%.1f ", grid.getBraiding()) : "",
-                grid.getDeadends().isEmpty() ? "" : String.format("/ [%d]", grid.getDeadends().size()));
+                grid.getDeadendCount() == 0 ? "" : String.format("/ [%d]", grid.getDeadendCount()));
     }
 
     public static Color color(int r, int g, int b) {
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.command;
+
+import static amazing.Constants.DEBUG;
+import static amazing.Constants.fileFormat;
+import static amazing.Utils.saveDir;
+import static amazing.Utils.save;
+
+import java.awt.image.BufferedImage;
+import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import amazing.Constants;
+import amazing.Constants.Colors;
+import amazing.generator.Ellers;
+import amazing.generator.Generator;
+import amazing.grid.CompactCell;
+import amazing.grid.MappedGrid;
+import amazing.task.Renderer;
+
+/**
+ * Builds a maze in a {@link MappedGrid mapped grid} file, or reopens one built earlier.
+ *
+ * The maze is carved by {@link Ellers} unless another generator is named, and the distances
+ * from the centre are stored in the file as well. A reopened maze is described, and saved as
+ * an image if it has no more than {@link #RENDER_LIMIT} cells.
+ */
+public class Mapped {
+    public static final long RENDER_LIMIT = 4_000_000L;
+    public static final int RENDER_SIZE = 10;
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] argv) throws Exception {
+        if (DEBUG) {
+            System.out.printf("+ Mapped maze file generator - %s\n", Constants.VERSION);
+            System.out.printf("+ %s\n", Constants.COPYRIGHT);
+        }
+
+        // Parse arguments
+        if (argv.length != 1 && argv.length != 3 && argv.length != 4) {
+            throw new IllegalArgumentException("Usage: Mapped file [rows columns [generator]]");
+        }
+        Path path = Paths.get(argv[0]);
+        if (argv.length == 1) {
+            try (MappedGrid grid = MappedGrid.open(path)) {
+                describe(path, grid);
+                if (grid.getCellCount() <= RENDER_LIMIT) {
+                    Renderer<?, ?, ?, ?> renderer = new Renderer<>(RENDER_SIZE, 0f, Colors.choose(), false);
+                    BufferedImage image = renderer.render(grid);
+                    String file = save(image, fileFormat(), saveDir(), path.getFileName().toString());
+                    System.out.printf("> %s\n", file);
+                }
+            }
+            return;
+        }
+
+        int rows = Integer.valueOf(argv[1]), columns = Integer.valueOf(argv[2]);
+        Generator<CompactCell> generator = new Ellers<>();
+        if (argv.length == 4) {
+            String className = "amazing.generator." + argv[3];
+            try {
+                Class<? extends Generator<CompactCell>> c = (Class<? extends Generator<CompactCell>>) Class.forName(className);
+                Constructor<? extends Generator<CompactCell>> ctor = c.getConstructor();
+                generator = ctor.newInstance();
+                if (DEBUG) System.out.printf("- Generator %s loaded\n", generator.getName());
+            } catch (ClassNotFoundException | NoSuchMethodException | InstantiationException e) {
+                String message = "Cannot load generator " + argv[3];
+                if (DEBUG) System.err.printf("! %s: %s\n", message, e.getMessage());
+                throw new IllegalArgumentException(message, e);
+            }
+        }
+
+        try (MappedGrid grid = MappedGrid.create(path, rows, columns)) {
+            long start = System.nanoTime();
+            generator.accept(grid);
+            CompactCell centre = grid.getCell(rows / 2, columns / 2).get();
+            if (centre.hasLinks()) grid.distancesFrom(centre);
+            if (DEBUG) System.out.printf("- Built with %s in %d ms\n", generator.getName(), (System.nanoTime() - start) / 1_000_000L);
+            describe(path, grid);
+        }
+    }
+
+    private static void describe(Path path, MappedGrid grid) {
+        String distances = grid.getDistances()
+                .map(d -> String.format(" / longest path %d from %s to %s", grid.getMaximum(), d.getRoot(), grid.getFarthest()))
+                .orElse("");
+        System.out.printf("> %s :: %d rows and %d columns with %d cells%s\n",
+                path, grid.getRows(), grid.getColumns(), grid.getCellCount(), distances);
+    }
+}
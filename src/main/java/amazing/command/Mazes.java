@@ -41,12 +41,16 @@ import java.io.PrintWriter;
 import java.lang.reflect.Constructor;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import amazing.generator.Generator;
 import amazing.grid.Cell;
+import amazing.grid.FrozenGrid;
+import amazing.grid.GridPool;
 import amazing.grid.OverCell;
 import amazing.grid.UnderCell;
 import amazing.grid.WeaveGrid;
@@ -62,6 +66,7 @@ public class Mazes<O extends OverCell<O, U>, U extends UnderCell<U, O>, C extend
     private String fileName;
     private int n;
     private Generator<C> generator;
+    private GridPool<W> pool = new GridPool<>((rows, columns) -> (W) new WeaveGrid<>(rows, columns));
 
     public Mazes(int n, String fileName, Generator<C> generator) {
         this.n = n;
@@ -87,12 +92,22 @@ public class Mazes<O extends OverCell<O, U>, U extends UnderCell<U, O>, C extend
                 generator = (Generator<C>) sample(GENERATORS);
             }
 
-            Builder<O, U, C, W> task = new Builder<>(rows, columns, generator);
+            Builder<O, U, C, W> task = new Builder<>(pool, rows, columns, generator);
             Renderer<O, U, C, W> renderer = new Renderer<>(size, inset, color, dark);
 
             Future<W> result = exec.submit(task);
-            W grid = result.get();
-            BufferedImage image = renderer.apply(grid);
+            W built;
+            try {
+                built = result.get();
+            } catch (ExecutionException ee) {
+                if (!(ee.getCause() instanceof CancellationException)) throw ee;
+                System.err.printf("! Build %03d of %s abandoned\n", i, generator.getName());
+                pool.release(task.getGrid());
+                continue;
+            }
+            FrozenGrid grid = built.freeze();
+            pool.release(built);
+            BufferedImage image = renderer.render(grid);
             String file = save(image, fileFormat(), saveDir(), fileName);
 
             String title = title(grid);
@@ -24,6 +24,7 @@ import static amazing.Utils.sample;
 
 import amazing.grid.Cell;
 import amazing.grid.Grid;
+import amazing.grid.Neighbours;
 
 /**
  * Aldous-Broder algorithm for maze generation.
@@ -31,17 +32,35 @@ import amazing.grid.Grid;
 public class AldousBroder<C extends Cell<C>> extends Generator<C> {
 
     public void accept(Grid<C> grid) {
-        C cell = grid.getRandom();
-        int unvisited = grid.getSize() - 1;
+        start(grid).complete();
+    }
+
+    /**
+     * Each step moves to a random neighbour, linking it if it has not been visited.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        Neighbours<C> neighbours = new Neighbours<>();
+        return new Steps() {
+            private C cell = grid.getRandom();
+            private int unvisited = grid.getSize() - 1;
+            private long step = 0;
 
-        while (unvisited > 0) {
-            C neighbour = sample(cell.getNeighbours());
-            if (neighbour.getLinks().isEmpty()) {
-                cell.link(neighbour, true);
-                unvisited--;
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && unvisited > 0; s++, step++) {
+                    grid.checkpoint(step);
+                    cell.getNeighbours(neighbours);
+                    C neighbour = sample(neighbours);
+                    if (!neighbour.hasLinks()) {
+                        cell.link(neighbour, true);
+                        unvisited--;
+                    }
+                    cell = neighbour;
+                }
+                return unvisited > 0;
             }
-            cell = neighbour;
-        }
+        };
     }
 
     public String getName() { return "Aldous Broder"; }
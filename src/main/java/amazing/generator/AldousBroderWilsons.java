@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Hybrid of the {@link AldousBroder Aldous-Broder} and {@link Wilsons} algorithms.
+ *
+ * A random walk that links each cell it visits first covers part of the grid quickly, when
+ * Aldous-Broder still finds new cells often. Once the given fraction of the region it started in
+ * has been visited, Wilsons algorithm fills in the rest, whose walks are short now that most
+ * of the maze exists. Both give a uniform spanning tree, so the result does too.
+ */
+public class AldousBroderWilsons<C extends Cell<C>> extends Wilsons<C> {
+    public static final float DEFAULT_FRACTION = 0.3f;
+
+    private final float fraction;
+
+    public AldousBroderWilsons() {
+        this(DEFAULT_FRACTION);
+    }
+
+    public AldousBroderWilsons(float fraction) {
+        if (fraction < 0f || fraction > 1f) throw new IllegalArgumentException("Fraction must be between 0 and 1: " + fraction);
+        this.fraction = fraction;
+    }
+
+    /**
+     * Each step of the seeding walk moves to a random neighbour, linking it if it has not been
+     * visited, and once enough of the region has been visited the other regions are seeded.
+     */
+    @Override
+    protected Steps seed(Grid<C> grid, State state, Neighbours<C> neighbours) {
+        C first = grid.getRandom();
+        int target = (int) (fraction * state.sizes[state.region[first.getOrdinal()]]);
+        state.visited[first.getOrdinal()] = true;
+
+        return new Steps() {
+            private C cell = first;
+            private int visited = 1;
+            private boolean done = false;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && visited < target; s++) {
+                    grid.checkpoint(state.steps++);
+                    cell.getNeighbours(neighbours);
+                    C neighbour = neighbours.sample(RANDOM);
+                    if (!state.visited[neighbour.getOrdinal()]) {
+                        cell.link(neighbour, true);
+                        state.visited[neighbour.getOrdinal()] = true;
+                        visited++;
+                    }
+                    cell = neighbour;
+                }
+                if (visited < target) return true;
+                if (!done) AldousBroderWilsons.super.seed(grid, state, neighbours);
+                done = true;
+                return false;
+            }
+        };
+    }
+
+    public String getName() { return "Aldous Broder Wilsons"; }
+}
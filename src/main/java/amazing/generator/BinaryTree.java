@@ -20,30 +20,30 @@
  */
 package amazing.generator;
 
-import static amazing.Utils.sample;
-
-import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import amazing.grid.Cell;
-import amazing.grid.Grid;
 
 /**
  * Binary tree algorithm for maze generation.
  */
-public class BinaryTree<C extends Cell<C>> extends Generator<C> {
+public class BinaryTree<C extends Cell<C>> extends RowGenerator<C> {
 
-    public void accept(Grid<C> grid) {
-        for (C cell : grid) {
-            List<C> neighbours = new ArrayList<>();
-            cell.getNorth().ifPresent(c -> neighbours.add(c));
-            cell.getEast().ifPresent(c -> neighbours.add(c));
-            if (!neighbours.isEmpty()) {
-                C neighbour = sample(neighbours);
-                cell.link(neighbour, true);
+    @Override
+    protected void carve(List<C> row, SplittableRandom random, byte[] links, int offset) {
+        for (int c = 0; c < row.size(); c++) {
+            C cell = row.get(c);
+            boolean north = cell.hasNorth(), east = cell.hasEast();
+            if (north && east) {
+                links[offset + c] = random.nextBoolean() ? NORTH : EAST;
+            } else if (north) {
+                links[offset + c] = NORTH;
+            } else if (east) {
+                links[offset + c] = EAST;
             }
         }
     }
 
     public String getName() { return "Binary Tree"; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+
+/**
+ * Cellular automaton algorithm for maze generation.
+ *
+ * A field of wall pixels twice the size of the grid, with a pixel for each cell and one for
+ * each wall between them, is filled with random noise and evolved under a life-like
+ * {@link Rule rule} such as {@link Rule#MAZE Maze} or {@link Rule#MAZECTRIC Mazectric}, until
+ * fewer than one pixel in 1024 changes, leaving only small oscillators, or the generation
+ * limit is reached. Each row of the field is a run of {@code long} words, and the neighbours
+ * of 64 pixels are counted at once with shifts and bit-sliced adds, so a generation reads and
+ * writes the field once; the rows can be stepped in {@link #parallel(boolean) parallel}
+ * because each generation is written to a second field.
+ *
+ * The cells are linked wherever the wall pixel between them is clear, which gives loops and
+ * closed pockets, so the remaining walls are then knocked down in random order with the
+ * {@link Kruskals.State Kruskals} disjoint sets until every cell can be reached.
+ */
+public class CellularAutomaton<C extends Cell<C>> extends Generator<C> {
+    public static final int DEFAULT_GENERATIONS = 200;
+
+    /**
+     * A life-like rule, giving the neighbour counts for a pixel to be born and to survive.
+     */
+    public static final class Rule {
+        public static final Rule MAZE = new Rule("Maze", "B3/S12345");
+        public static final Rule MAZECTRIC = new Rule("Mazectric", "B3/S1234");
+
+        private final String name;
+        private final int birth, survive;
+        private final int[] counts;
+
+        private Rule(String name, String rule) {
+            this.name = name;
+            int birth = 0, survive = 0;
+            for (String part : rule.toUpperCase().split("/")) {
+                if (part.isEmpty()) throw new IllegalArgumentException(String.format("Invalid rule %s", rule));
+                int counts = 0;
+                for (char digit : part.substring(1).toCharArray()) {
+                    if (digit < '0' || digit > '8') throw new IllegalArgumentException(String.format("Invalid rule %s", rule));
+                    counts |= 1 << (digit - '0');
+                }
+                switch (part.charAt(0)) {
+                    case 'B': birth |= counts; break;
+                    case 'S': survive |= counts; break;
+                    default: throw new IllegalArgumentException(String.format("Invalid rule %s", rule));
+                }
+            }
+            this.birth = birth;
+            this.survive = survive;
+            int rules = birth | survive;
+            this.counts = IntStream.rangeClosed(0, 8).filter(k -> (rules & (1 << k)) != 0).toArray();
+        }
+
+        /**
+         * Parses a rule in {@code B3/S12345} notation.
+         */
+        public static Rule of(String rule) {
+            return new Rule(rule.toUpperCase(), rule);
+        }
+
+        public String getName() { return name; }
+    }
+
+    private final Rule rule;
+    private final int generations;
+    private boolean parallel = false;
+
+    public CellularAutomaton() {
+        this(Rule.MAZE);
+    }
+
+    public CellularAutomaton(Rule rule) {
+        this(rule, DEFAULT_GENERATIONS);
+    }
+
+    /**
+     * @param generations The most generations to evolve the field for
+     */
+    public CellularAutomaton(Rule rule, int generations) {
+        this.rule = rule;
+        this.generations = generations;
+    }
+
+    public CellularAutomaton<C> parallel(boolean enable) {
+        this.parallel = enable;
+        return this;
+    }
+    public boolean isParallel() { return parallel; }
+
+    public void accept(Grid<C> grid) {
+        int rows = grid.getRows(), columns = grid.getColumns();
+        Field field = new Field(2 * rows + 1, 2 * columns + 1);
+        field.seed(new SplittableRandom(RANDOM.nextLong()));
+        for (int g = 0; g < generations; g++) {
+            if (field.step(grid) <= field.pixels >>> 10) break;
+        }
+
+        Kruskals<C>.State state = new Kruskals<C>().new State(grid);
+        List<List<C>> cells = grid.getGrid();
+        for (int r = 0; r < rows; r++) {
+            grid.checkpoint();
+            List<C> row = cells.get(r);
+            for (int c = 0; c < columns; c++) {
+                C cell = row.get(c);
+                if (cell.hasEast() && !field.get(2 * r + 1, 2 * c + 2)) join(state, cell, cell.getEast().get());
+                if (cell.hasSouth() && !field.get(2 * r + 2, 2 * c + 1)) join(state, cell, cell.getSouth().get());
+            }
+        }
+        for (long step = 0; state.hasNext(); step++) {
+            grid.checkpoint(step);
+            state.next();
+        }
+    }
+
+    private void join(Kruskals<C>.State state, C cell, C target) {
+        if (state.canMerge(cell, target)) state.merge(cell, target);
+        else cell.link(target, true);
+    }
+
+    /**
+     * The wall pixels, a row of {@code long} words at a time, and the next generation.
+     */
+    private final class Field {
+        private final int height, width, words;
+        private final long last, pixels;
+        private long[] current, next;
+
+        Field(int height, int width) {
+            this.height = height;
+            this.width = width;
+            this.words = (width + 63) >>> 6;
+            this.pixels = (long) height * width;
+            if ((long) height * words > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(String.format("Field with %d rows and %d columns is too large", height, width));
+            }
+            this.last = -1L >>> (64 * words - width);
+            this.current = new long[height * words];
+            this.next = new long[height * words];
+        }
+
+        boolean get(int y, int x) {
+            return (current[y * words + (x >>> 6)] & (1L << x)) != 0;
+        }
+
+        /**
+         * Fills the field with noise, each row from its own stream split in order from the seed.
+         */
+        void seed(SplittableRandom random) {
+            for (int y = 0; y < height; y++) {
+                SplittableRandom stream = random.split();
+                for (int w = 0; w < words; w++) {
+                    current[y * words + w] = stream.nextLong() & stream.nextLong();
+                }
+                current[y * words + words - 1] &= last;
+            }
+        }
+
+        /**
+         * Evolves the field by one generation, checking the grid for cancellation at each row,
+         * and returns the number of pixels that changed.
+         */
+        long step(Grid<C> grid) {
+            IntStream range = IntStream.range(0, height);
+            if (parallel) range = range.parallel();
+            long changed = range.mapToLong(y -> {
+                grid.checkpoint();
+                return step(y);
+            }).sum();
+            long[] swap = current;
+            current = next;
+            next = swap;
+            return changed;
+        }
+
+        /**
+         * Writes the next generation of one row, returning the number of pixels that changed. Rows
+         * outside the field are read as empty.
+         */
+        private int step(int y) {
+            int above = (y - 1) * words, here = y * words, below = (y + 1) * words;
+            boolean top = y > 0, bottom = y + 1 < height;
+            int changed = 0;
+            long a0 = 0L, h0 = 0L, b0 = 0L;
+            long a1 = top ? current[above] : 0L, h1 = current[here], b1 = bottom ? current[below] : 0L;
+            for (int w = 0; w < words; w++) {
+                boolean more = w + 1 < words;
+                long a2 = top && more ? current[above + w + 1] : 0L;
+                long h2 = more ? current[here + w + 1] : 0L;
+                long b2 = bottom && more ? current[below + w + 1] : 0L;
+
+                // Bit-sliced count of the eight neighbours of each pixel: the three pixels
+                // above and below and the two beside are summed along each row with full
+                // adders, and the three row sums are added into four bit planes
+                long aw = (a1 << 1) | (a0 >>> 63), ae = (a1 >>> 1) | (a2 << 63);
+                long hw = (h1 << 1) | (h0 >>> 63), he = (h1 >>> 1) | (h2 << 63);
+                long bw = (b1 << 1) | (b0 >>> 63), be = (b1 >>> 1) | (b2 << 63);
+                long al = aw ^ a1 ^ ae, ah = (aw & a1) | (ae & (aw ^ a1));
+                long hl = hw ^ he, hh = hw & he;
+                long bl = bw ^ b1 ^ be, bh = (bw & b1) | (be & (bw ^ b1));
+                long s0 = al ^ hl ^ bl, k1 = (al & hl) | (bl & (al ^ hl));
+                long t = ah ^ hh ^ bh, u = (ah & hh) | (bh & (ah ^ hh));
+                long s1 = t ^ k1, v = t & k1;
+                long s2 = u ^ v, s3 = u & v;
+
+                long result = 0L;
+                for (int k : rule.counts) {
+                    long count = ((k & 1) != 0 ? s0 : ~s0) & ((k & 2) != 0 ? s1 : ~s1)
+                            & ((k & 4) != 0 ? s2 : ~s2) & ((k & 8) != 0 ? s3 : ~s3);
+                    if ((rule.birth & (1 << k)) != 0) result |= ~h1 & count;
+                    if ((rule.survive & (1 << k)) != 0) result |= h1 & count;
+                }
+                if (!more) result &= last;
+
+                next[here + w] = result;
+                changed += Long.bitCount(result ^ h1);
+                a0 = a1; h0 = h1; b0 = b1;
+                a1 = a2; h1 = h2; b1 = b2;
+            }
+            return changed;
+        }
+    }
+
+    public String getName() { return String.format("%s Automaton", rule.getName()); }
+}
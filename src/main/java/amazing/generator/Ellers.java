@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.choose;
+import static amazing.Utils.random;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+
+/**
+ * Ellers algorithm for maze generation.
+ *
+ * The maze is carved one row at a time, keeping only a set label for each cell in the
+ * current row, so {@link #stream(int, int, RowConsumer)} can produce mazes of any height
+ * in memory proportional to the number of columns. Labels are reused once no cell in the
+ * row carries them, so they never exceed the number of columns.
+ */
+public class Ellers<C extends Cell<C>> extends Generator<C> {
+
+    /**
+     * Receives each finished row of a {@link Ellers#stream(int, int, RowConsumer) streamed} maze.
+     *
+     * The bit sets are reused for the next row, so must be copied if they are kept.
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param row The index of the row
+         * @param east The columns whose cell is linked to the cell to the east
+         * @param south The columns whose cell is linked to the cell below, always empty for the last row
+         */
+        void accept(int row, BitSet east, BitSet south);
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step carves one row.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        List<List<C>> cells = grid.getGrid();
+        Rows rows = new Rows(grid.getRows(), grid.getColumns());
+        RowConsumer carve = (row, east, south) -> {
+            grid.checkpoint();
+            List<C> current = cells.get(row);
+            for (int c = east.nextSetBit(0); c >= 0; c = east.nextSetBit(c + 1)) {
+                C cell = current.get(c);
+                cell.getEast().ifPresent(e -> cell.link(e, true));
+            }
+            for (int c = south.nextSetBit(0); c >= 0; c = south.nextSetBit(c + 1)) {
+                C cell = current.get(c);
+                cell.getSouth().ifPresent(s -> cell.link(s, true));
+            }
+        };
+        return n -> {
+            for (int s = 0; s < n; s++) {
+                if (!rows.next(carve)) return false;
+            }
+            return rows.row < rows.rows;
+        };
+    }
+
+    /**
+     * Generates a maze with the given size without a {@link Grid grid}, passing each row to
+     * the consumer as soon as it is finished.
+     */
+    public void stream(int rows, int columns, RowConsumer consumer) {
+        Rows state = new Rows(rows, columns);
+        while (state.next(consumer));
+    }
+
+    /**
+     * The set labels of the current row, and the buffers used to carve the next one.
+     */
+    private static final class Rows {
+        final int rows, columns;
+        int[] sets, next;
+        final int[] pick, members, first, following;
+        final boolean[] used, down;
+        final BitSet east, south;
+        int row = 0;
+
+        Rows(int rows, int columns) {
+            this.rows = rows;
+            this.columns = columns;
+            sets = new int[columns];
+            next = new int[columns];
+            pick = new int[columns + 1];
+            members = new int[columns + 1];
+            first = new int[columns + 1];
+            following = new int[columns];
+            used = new boolean[columns + 1];
+            down = new boolean[columns + 1];
+            east = new BitSet(columns);
+            south = new BitSet(columns);
+        }
+
+        /**
+         * Carves the next row and passes it to the consumer, returning {@code false} once there are no rows left.
+         */
+        boolean next(RowConsumer consumer) {
+            if (row >= rows) return false;
+
+            boolean last = row == rows - 1;
+            label(sets, used);
+            east.clear();
+            south.clear();
+
+            // Chain the cells of each set together, so a merge only relabels the smaller set
+            Arrays.fill(members, 0);
+            for (int c = columns - 1; c >= 0; c--) {
+                int set = sets[c];
+                following[c] = members[set]++ == 0 ? -1 : first[set];
+                first[set] = c;
+            }
+
+            // Join neighbouring cells in different sets, always on the last row
+            for (int c = 0; c < columns - 1; c++) {
+                if (sets[c] != sets[c + 1] && (last || choose())) {
+                    east.set(c);
+                    int to = sets[c], from = sets[c + 1];
+                    if (members[from] > members[to]) {
+                        to = sets[c + 1];
+                        from = sets[c];
+                    }
+                    int tail = first[from];
+                    for (int i = tail; i >= 0; i = following[i]) {
+                        sets[i] = to;
+                        tail = i;
+                    }
+                    following[tail] = first[to];
+                    first[to] = first[from];
+                    members[to] += members[from];
+                    members[from] = 0;
+                }
+            }
+
+            // Carry every set down at least once, choosing the fallback cell by reservoir sampling
+            if (!last) {
+                Arrays.fill(members, 0);
+                Arrays.fill(down, false);
+                Arrays.fill(next, 0);
+                for (int c = 0; c < columns; c++) {
+                    int set = sets[c];
+                    if (random(members[set]++) == 0) pick[set] = c;
+                    if (choose()) {
+                        south.set(c);
+                        down[set] = true;
+                    }
+                }
+                for (int c = 0; c < columns; c++) {
+                    int set = sets[c];
+                    if (!down[set] && pick[set] == c) {
+                        south.set(c);
+                        down[set] = true;
+                    }
+                    if (south.get(c)) next[c] = set;
+                }
+            }
+
+            consumer.accept(row, east, south);
+
+            int[] swap = sets;
+            sets = next;
+            next = swap;
+
+            row++;
+            return row < rows;
+        }
+    }
+
+    /**
+     * Gives each unlabelled cell a label of its own, reusing labels no longer in the row.
+     */
+    private static void label(int[] sets, boolean[] used) {
+        Arrays.fill(used, false);
+        for (int set : sets) used[set] = true;
+        int free = 1;
+        for (int c = 0; c < sets.length; c++) {
+            if (sets[c] == 0) {
+                while (used[free]) free++;
+                sets[c] = free;
+                used[free] = true;
+            }
+        }
+    }
+
+    public String getName() { return "Ellers"; }
+}
@@ -34,11 +34,56 @@ public abstract class Generator<C extends Cell<C>> implements Consumer<Grid<C>>
      * 
      * @param grid The grid to generate the maze on. This is modified in place,
      * rather than returning a new grid.
+     * @throws java.util.concurrent.CancellationException If the build is abandoned, which
+     * generators check with {@link Grid#checkpoint(long)} as they go, leaving the grid
+     * partly built.
      * 
      * @see Consumer#accept(Object)
      */
     @Override
     public abstract void accept(Grid<C> grid);
+
+    /**
+     * A maze generation in progress on one grid, carried out a number of steps at a time.
+     *
+     * A step is one pass of the main loop of the algorithm and links at most a few cells, so
+     * with the grid {@link Grid#startJournal() journal} started, the events added by each call
+     * to {@link #advance(int)} are a batch of changes that can be drawn before going on.
+     */
+    @FunctionalInterface
+    public interface Steps {
+        /**
+         * Carries out up to {@code n} steps, returning {@code false} once the maze is finished.
+         */
+        boolean advance(int n);
+
+        /**
+         * Carries out all of the remaining steps.
+         */
+        default void complete() {
+            while (advance(Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Starts generating a maze on the grid, which is then carried out by the returned
+     * {@link Steps steps}. Generators that cannot be resumed part way through generate the
+     * whole maze in the first step.
+     */
+    public Steps start(Grid<C> grid) {
+        return new Steps() {
+            private boolean done = false;
+
+            @Override
+            public boolean advance(int n) {
+                if (!done && n > 0) {
+                    accept(grid);
+                    done = true;
+                }
+                return !done;
+            }
+        };
+    }
    
     /**
      * Returns the name of the maze generator algorithm.
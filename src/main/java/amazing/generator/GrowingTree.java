@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.sample;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.Random;
+
+import amazing.Utils;
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Growing tree algorithm for maze generation.
+ *
+ * Cells are added to a list of active cells as they are carved, and a {@link Selection selection}
+ * strategy chooses which one to carve from next. Always taking the newest cell behaves like the
+ * {@link RecursiveBacktracker recursive backtracker}, and taking a random one like Prims algorithm.
+ * The active cells are appended as {@link Cell#getOrdinal() ordinals} to an array, and removed
+ * cells are counted out of a Fenwick tree, so finding or removing the cell at any index takes
+ * logarithmic time and the steps allocate nothing.
+ */
+public class GrowingTree<C extends Cell<C>> extends Generator<C> {
+
+    /**
+     * Chooses an active cell, by index from the oldest at zero to the newest at {@code size - 1}.
+     */
+    @FunctionalInterface
+    public interface Selection {
+        int select(int size, Random random);
+    }
+
+    public static final Selection NEWEST = (size, random) -> size - 1;
+    public static final Selection OLDEST = (size, random) -> 0;
+    public static final Selection RANDOM = (size, random) -> random.nextInt(size);
+
+    /**
+     * Chooses the newest cell with probability {@code newest}, otherwise a random one.
+     */
+    public static Selection mix(float newest) {
+        return (size, random) -> random.nextFloat() < newest ? size - 1 : random.nextInt(size);
+    }
+
+    private final Selection selection;
+    private final String name;
+
+    /**
+     * Chooses the newest or a random cell with equal probability.
+     */
+    public GrowingTree() {
+        this(mix(0.5f), "Mixed");
+    }
+
+    public GrowingTree(Selection selection, String name) {
+        this.selection = Objects.requireNonNull(selection);
+        this.name = name;
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step carves from the selected active cell to one of its unvisited neighbours, or
+     * retires the cell if there are none.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Steps start(Grid<C> grid) {
+        int capacity = grid.getCapacity();
+        Object[] cells = new Object[capacity];
+        long count = 0;
+        for (C cell : grid) {
+            grid.checkpoint(count++);
+            cells[cell.getOrdinal()] = cell;
+        }
+
+        int[] active = new int[capacity], live = new int[capacity + 1];
+        BitSet visited = new BitSet(capacity);
+
+        C first = grid.getRandom();
+        visited.set(first.getOrdinal());
+        active[0] = first.getOrdinal();
+        update(live, 0, 1);
+
+        Neighbours<C> neighbours = new Neighbours<>(), unvisited = new Neighbours<>();
+        return new Steps() {
+            private int tail = 1, size = 1;
+            private long step = 0;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && size > 0; s++, step++) {
+                    grid.checkpoint(step);
+                    int slot = find(live, selection.select(size, Utils.RANDOM));
+                    C current = (C) cells[active[slot]];
+                    current.getNeighbours(neighbours);
+                    unvisited.clear();
+                    for (int i = 0; i < neighbours.size(); i++) {
+                        C neighbour = neighbours.get(i);
+                        if (!visited.get(neighbour.getOrdinal()) && !neighbour.hasLinks()) unvisited.add(neighbour);
+                    }
+
+                    if (unvisited.isEmpty()) {
+                        update(live, slot, -1);
+                        size--;
+                    } else {
+                        C neighbour = sample(unvisited);
+                        current.link(neighbour, true);
+                        visited.set(neighbour.getOrdinal());
+                        cells[neighbour.getOrdinal()] = neighbour;
+                        active[tail] = neighbour.getOrdinal();
+                        update(live, tail++, 1);
+                        size++;
+                    }
+                }
+                return size > 0;
+            }
+        };
+    }
+
+    private static void update(int[] tree, int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /**
+     * Returns the slot holding the active cell at the index, counting only cells still active.
+     */
+    private static int find(int[] tree, int index) {
+        int slot = 0, remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            if (slot + step < tree.length && tree[slot + step] < remaining) {
+                slot += step;
+                remaining -= tree[slot];
+            }
+        }
+        return slot;
+    }
+
+    public String getName() { return String.format("Growing Tree (%s)", name); }
+}
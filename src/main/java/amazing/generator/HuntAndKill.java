@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.sample;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Hunt and kill algorithm for maze generation.
+ *
+ * A random walk carves through unvisited cells until it is stuck, and then the grid is hunted
+ * row by row for the first unvisited cell beside a visited one, which is linked to it and walked
+ * from next. Visited cells are kept in a bitset with a count of unvisited cells in each row, and
+ * the unvisited cells beside them in a second frontier bitset updated as each cell is visited,
+ * so the hunt is a {@link BitSet#nextSetBit(int)} word scan rather than a pass over the grid, and
+ * no stack is needed. If the hunt finds nothing, as in a region cut off by
+ * {@link Grid#delete(float) deleting} cells, a new walk starts at the first unvisited cell.
+ */
+public class HuntAndKill<C extends Cell<C>> extends Generator<C> {
+
+    /**
+     * The visited cells and the frontier, by {@link Cell#getOrdinal() ordinal}.
+     */
+    private static final class State {
+        final BitSet visited, frontier;
+        final int[] remaining;
+        final int columns, size;
+        int cursor;
+
+        State(int rows, int columns) {
+            this.columns = columns;
+            this.size = rows * columns;
+            this.visited = new BitSet(size);
+            this.frontier = new BitSet(size);
+            this.remaining = new int[rows];
+            Arrays.fill(remaining, columns);
+        }
+
+        <C extends Cell<C>> void visit(C cell, Neighbours<C> neighbours) {
+            int ordinal = cell.getOrdinal();
+            visited.set(ordinal);
+            frontier.clear(ordinal);
+            remaining[ordinal / columns]--;
+
+            cell.getNeighbours(neighbours);
+            for (int i = 0; i < neighbours.size(); i++) {
+                int n = neighbours.get(i).getOrdinal();
+                if (n < size && !visited.get(n)) {
+                    frontier.set(n);
+                    if (n < cursor) cursor = n;
+                }
+            }
+        }
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step either moves the walk on to an unvisited neighbour, or while hunting, checks one
+     * frontier cell for a visited neighbour to link it to.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        int rows = grid.getRows(), columns = grid.getColumns(), size = grid.getSize();
+        List<List<C>> cells = grid.getGrid();
+        if (size == 0) return n -> false;
+
+        State state = new State(rows, columns);
+        for (int r = 0; r < rows; r++) {
+            grid.checkpoint();
+            List<C> row = cells.get(r);
+            for (int c = 0; c < columns; c++) {
+                if (!row.get(c).hasNeighbours()) {
+                    state.visited.set(r * columns + c);
+                    state.remaining[r]--;
+                }
+            }
+        }
+
+        Neighbours<C> neighbours = new Neighbours<>(), candidates = new Neighbours<>(), around = new Neighbours<>();
+        C initial = grid.getRandom();
+        if (!state.visited.get(initial.getOrdinal())) state.visit(initial, around);
+
+        return new Steps() {
+            private C current = initial;
+            private boolean hunting = false, done = false;
+            private int first = 0, hunted = -1;
+            private long step = 0;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && !done; s++) {
+                    grid.checkpoint(step++);
+                    if (!hunting) {
+                        // Kill: walk to an unvisited neighbour if there is one
+                        current.getNeighbours(neighbours);
+                        filter(neighbours, candidates, state, false);
+                        if (!candidates.isEmpty()) {
+                            C next = sample(candidates);
+                            current.link(next, true);
+                            state.visit(next, around);
+                            current = next;
+                            continue;
+                        }
+
+                        while (first < rows && state.remaining[first] == 0) first++;
+                        if (first == rows) {
+                            done = true;
+                            break;
+                        }
+                        hunting = true;
+                        hunted = state.frontier.nextSetBit(state.cursor);
+                    }
+
+                    // Hunt: take the first frontier cell that still has a visited neighbour
+                    if (hunted >= 0) {
+                        C cell = cells.get(hunted / columns).get(hunted % columns);
+                        cell.getNeighbours(neighbours);
+                        filter(neighbours, candidates, state, true);
+                        state.cursor = hunted;
+                        if (candidates.isEmpty()) {
+                            state.frontier.clear(hunted);
+                            hunted = state.frontier.nextSetBit(hunted + 1);
+                            continue;
+                        }
+                        cell.link(sample(candidates), true);
+                        current = cell;
+                    } else {
+                        int o = state.visited.nextClearBit(first * columns);
+                        current = cells.get(o / columns).get(o % columns);
+                    }
+                    state.visit(current, around);
+                    hunting = false;
+                }
+                return !done;
+            }
+        };
+    }
+
+    /**
+     * Fills the candidates with the neighbours that have or have not been visited. Under-cells,
+     * outside the range of positions, are always linked and so count as visited, but are never
+     * chosen, since only the cells on either side of a tunnel can reach them.
+     */
+    private static <C extends Cell<C>> void filter(Neighbours<C> neighbours, Neighbours<C> candidates, State state, boolean wanted) {
+        candidates.clear();
+        for (int i = 0; i < neighbours.size(); i++) {
+            C neighbour = neighbours.get(i);
+            int ordinal = neighbour.getOrdinal();
+            if (ordinal < state.size && state.visited.get(ordinal) == wanted) candidates.add(neighbour);
+        }
+    }
+
+    public String getName() { return "Hunt and Kill"; }
+}
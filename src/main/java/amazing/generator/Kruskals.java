@@ -20,14 +20,12 @@
  */
 package amazing.generator;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
+import static amazing.Utils.RANDOM;
+
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 import amazing.grid.Cell;
 import amazing.grid.Grid;
@@ -36,55 +34,144 @@ import amazing.grid.Grid;
  * Kruskals algorithm for maze generation.
  */
 public class Kruskals<C extends Cell<C>> extends Generator<C> {
+    /**
+     * The sets of connected cells, kept as a disjoint-set forest over the cell
+     * {@link Cell#getOrdinal() ordinals}, and the shuffled edges still to be tried.
+     */
     public class State {
-        private List<List<C>> neighbors;
-        private Map<C,Integer> setForCell;
-        private Map<Integer,Set<C>> cellsInSet;
+        private int[] parent, rank;
+        private Object[] cells;
+        private int[] edges;
+        private int count, next;
 
         public State(Grid<C> grid) {
-            this.neighbors = new ArrayList<>();
-            this.setForCell = new HashMap<>();
-            this.cellsInSet = new HashMap<>();
-
+            int capacity = grid.getCapacity();
+            this.parent = new int[capacity];
+            this.rank = new int[capacity];
+            this.cells = new Object[capacity];
+            this.edges = new int[4 * grid.getSize()];
+            for (int i = 0; i < capacity; i++) parent[i] = i;
+
+            long step = 0;
             for (C cell : grid) {
-                int set = setForCell.size();
-                setForCell.put(cell, set);
-                cellsInSet.put(set, new HashSet<>(Set.of(cell)));
+                grid.checkpoint(step++);
+                cells[cell.getOrdinal()] = cell;
+                if (cell.hasSouth()) add(cell, cell.getSouth().get());
+                if (cell.hasEast()) add(cell, cell.getEast().get());
+            }
+            shuffle(grid);
+        }
 
-                if (cell.hasSouth()) {
-                    neighbors.add(List.of(cell, cell.getSouth().get()));
-                }
-                if (cell.hasEast()) {
-                    neighbors.add(List.of(cell, cell.getEast().get()));
-                }
+        private void add(C left, C right) {
+            if (2 * count + 2 > edges.length) edges = Arrays.copyOf(edges, 2 * edges.length + 2);
+            edges[2 * count] = left.getOrdinal();
+            edges[2 * count + 1] = right.getOrdinal();
+            count++;
+        }
+
+        private void shuffle(Grid<C> grid) {
+            for (int i = count - 1; i > 0; i--) {
+                grid.checkpoint(i);
+                int j = RANDOM.nextInt(i + 1);
+                int left = edges[2 * i], right = edges[2 * i + 1];
+                edges[2 * i] = edges[2 * j];
+                edges[2 * i + 1] = edges[2 * j + 1];
+                edges[2 * j] = left;
+                edges[2 * j + 1] = right;
+            }
+        }
+
+        private int find(int ordinal) {
+            int root = ordinal;
+            while (parent[root] != root) root = parent[root];
+            while (parent[ordinal] != root) {
+                int up = parent[ordinal];
+                parent[ordinal] = root;
+                ordinal = up;
             }
+            return root;
         }
 
         public boolean canMerge(C left, C right) {
-            return setForCell.get(left).intValue() != setForCell.get(right).intValue();
+            return find(left.getOrdinal()) != find(right.getOrdinal());
         }
 
         public void merge(C left, C right) {
             left.link(right, true);
 
-            int winner = setForCell.get(left);
-            int loser = setForCell.get(right);
-
-            Set<C> losers = cellsInSet.get(loser);
-            if (Objects.isNull(losers)) losers = Set.of(right);
+            int winner = find(left.getOrdinal());
+            int loser = find(right.getOrdinal());
+            if (winner == loser) return;
+            if (rank[winner] < rank[loser]) {
+                int swap = winner;
+                winner = loser;
+                loser = swap;
+            }
+            parent[loser] = winner;
+            if (rank[winner] == rank[loser]) rank[winner]++;
+        }
 
-            Set<C> winners = cellsInSet.get(winner);
-            if (Objects.isNull(winners)) winners = new HashSet<>(Set.of(left));
+        /**
+         * Returns a view of the edges still to be tried as pairs of cells, in the order they
+         * will be tried. Removing or adding pairs through the view changes which edges are tried.
+         */
+        public List<List<C>> getNeighbours() {
+            return new AbstractList<List<C>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public List<C> get(int index) {
+                    Objects.checkIndex(index, size());
+                    int edge = next + index;
+                    return List.of((C) cells[edges[2 * edge]], (C) cells[edges[2 * edge + 1]]);
+                }
 
-            for (C cell : losers) {
-                winners.add(cell);
-                setForCell.put(cell, winner);
-            }
+                @Override
+                public int size() { return count - next; }
+
+                @Override
+                public void add(int index, List<C> pair) {
+                    Objects.checkIndex(index, size() + 1);
+                    C left = pair.get(0), right = pair.get(1);
+                    cells[left.getOrdinal()] = left;
+                    cells[right.getOrdinal()] = right;
+                    if (2 * count + 2 > edges.length) edges = Arrays.copyOf(edges, 2 * edges.length + 2);
+                    int edge = next + index;
+                    System.arraycopy(edges, 2 * edge, edges, 2 * edge + 2, 2 * (count - edge));
+                    edges[2 * edge] = left.getOrdinal();
+                    edges[2 * edge + 1] = right.getOrdinal();
+                    count++;
+                    modCount++;
+                }
 
-            cellsInSet.remove(loser);
+                @Override
+                public List<C> remove(int index) {
+                    List<C> pair = get(index);
+                    int edge = next + index;
+                    System.arraycopy(edges, 2 * edge + 2, edges, 2 * edge, 2 * (count - edge - 1));
+                    count--;
+                    modCount++;
+                    return pair;
+                }
+            };
         }
 
-        public List<List<C>> getNeighbours() { return neighbors; }
+        /**
+         * Whether there are edges left that have not been tried.
+         */
+        public boolean hasNext() { return next < count; }
+
+        /**
+         * Tries the next edge, merging its cells if they are not yet connected.
+         */
+        @SuppressWarnings("unchecked")
+        public void next() {
+            C left = (C) cells[edges[2 * next]];
+            C right = (C) cells[edges[2 * next + 1]];
+            next++;
+            if (canMerge(left, right)) {
+                merge(left, right);
+            }
+        }
     }
 
     private State state = null;
@@ -95,21 +182,31 @@ public class Kruskals<C extends Cell<C>> extends Generator<C> {
     public void keepState(boolean enable) { this.keepState = enable; }
 
     public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step tries the next edge.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
         if (Objects.isNull(state)) setState(new State(grid));
+        State current = state;
+        if (!keepState) resetState();
 
-        List<List<C>> neighbours = state.getNeighbours();
-        Collections.shuffle(neighbours);
-        while (!neighbours.isEmpty()) {
-            List<C> top = neighbours.remove(0);
-            C left = top.get(0);
-            C right = top.get(1);
-            if (state.canMerge(left, right)) {
-                state.merge(left, right);
-            }
-        }
+        return new Steps() {
+            private long step = 0;
 
-        if (!keepState) resetState();
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && current.hasNext(); s++, step++) {
+                    grid.checkpoint(step);
+                    current.next();
+                }
+                return current.hasNext();
+            }
+        };
     }
 
     public String getName() { return "Kruskals"; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Origin shift algorithm for maze generation.
+ *
+ * The maze is kept as a tree rooted at the origin, with a parent for each cell. Each
+ * {@link #step(Neighbours) step} links the origin to a random adjacent cell, unlinks that cell
+ * from its parent and makes it the new origin, which leaves a perfect maze after every step
+ * and changes at most three cells. The maze starts as a breadth-first tree and is shuffled by
+ * a number of steps for each cell, after which the generator keeps its state so that the maze
+ * can go on evolving one step at a time. Each connected region of a grid with deleted cells
+ * is a separate tree, and only the region of the origin evolves.
+ */
+public class OriginShift<C extends Cell<C>> extends Generator<C> {
+    public static final int DEFAULT_STEPS = 10;
+
+    private final int steps;
+    private final Neighbours<C> neighbours = new Neighbours<>();
+    private Object[] cells;
+    private int[] parent;
+    private C origin;
+
+    public OriginShift() {
+        this(DEFAULT_STEPS);
+    }
+
+    /**
+     * @param steps The number of steps to shuffle the maze by, for each cell
+     */
+    public OriginShift(int steps) {
+        this.steps = steps;
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step first adds one cell of the breadth-first trees to the maze, and then shifts the
+     * origin once.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        int capacity = grid.getCapacity();
+        cells = new Object[capacity];
+        parent = new int[capacity];
+        Arrays.fill(parent, -1);
+        origin = null;
+
+        int[] queue = new int[capacity];
+        Iterator<C> regions = grid.iterator();
+        Neighbours<C> changed = new Neighbours<>();
+        return new Steps() {
+            private int head = 0, tail = 0;
+            private long shifts = -1;
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean advance(int n) {
+                for (int s = 0; s < n; s++) {
+                    if (shifts < 0) {
+                        // Breadth-first tree over each region, each cell linked to its parent
+                        while (head == tail && regions.hasNext()) {
+                            C cell = regions.next();
+                            int ordinal = cell.getOrdinal();
+                            if (cells[ordinal] != null || !cell.hasNeighbours()) continue;
+                            if (origin == null) origin = cell;
+                            cells[ordinal] = cell;
+                            queue[tail++] = ordinal;
+                        }
+                        if (head < tail) {
+                            grid.checkpoint(head);
+                            C current = (C) cells[queue[head++]];
+                            adjacent(current);
+                            for (int i = 0; i < neighbours.size(); i++) {
+                                C neighbour = neighbours.get(i);
+                                int o = neighbour.getOrdinal();
+                                if (cells[o] != null) continue;
+                                cells[o] = neighbour;
+                                parent[o] = current.getOrdinal();
+                                neighbour.link(current, true);
+                                queue[tail++] = o;
+                            }
+                            continue;
+                        }
+                        if (origin == null) return false;
+                        shifts = (long) steps * grid.getSize();
+                    }
+                    if (shifts == 0) return false;
+                    grid.checkpoint(shifts--);
+                    step(changed);
+                }
+                return shifts != 0;
+            }
+        };
+    }
+
+    /**
+     * Moves the origin to a random adjacent cell, filling the buffer with the cells whose links changed.
+     */
+    @SuppressWarnings("unchecked")
+    public void step(Neighbours<C> changed) {
+        if (origin == null) throw new IllegalStateException("No maze to evolve");
+
+        changed.clear();
+        adjacent(origin);
+        if (neighbours.isEmpty()) return;
+
+        C next = neighbours.sample(RANDOM);
+        int ordinal = next.getOrdinal();
+        C previous = (C) cells[parent[ordinal]];
+        if (previous != origin) {
+            next.unlink(previous, true);
+            origin.link(next, true);
+            changed.add(previous);
+        }
+        changed.add(origin);
+        changed.add(next);
+
+        parent[origin.getOrdinal()] = ordinal;
+        parent[ordinal] = -1;
+        origin = next;
+    }
+
+    /**
+     * Returns the current origin, the root of the tree.
+     */
+    public Optional<C> getOrigin() { return Optional.ofNullable(origin); }
+
+    /**
+     * Fills the buffer with the adjacent cells only, since an {@link amazing.grid.OverCell over-cell}
+     * would also report the cells it could tunnel to.
+     */
+    private void adjacent(C cell) {
+        neighbours.clear();
+        if (cell.hasNorth()) neighbours.add(cell.getNorth().get());
+        if (cell.hasSouth()) neighbours.add(cell.getSouth().get());
+        if (cell.hasWest()) neighbours.add(cell.getWest().get());
+        if (cell.hasEast()) neighbours.add(cell.getEast().get());
+    }
+
+    public String getName() { return "Origin Shift"; }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+import amazing.Utils;
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Prims algorithm for maze generation, growing a minimum spanning tree over weighted links.
+ *
+ * The cells next to the maze are kept in an indexed binary heap of {@link Cell#getOrdinal() ordinals},
+ * keyed by the lightest link to the maze, so lowering a key takes logarithmic time and nothing is
+ * allocated per entry. Weights default to random, giving the usual Prims texture, or can be derived
+ * from a field such as an image or noise to give structured mazes. Only adjacent cells are linked,
+ * so no tunnels are dug in a {@link amazing.grid.WeaveGrid weave grid}, since a passage can change
+ * before the cell it would lead to is carved.
+ */
+public class Prims<C extends Cell<C>> extends Generator<C> {
+
+    /**
+     * Gives the weight of a possible link from a cell in the maze to a neighbour outside it.
+     *
+     * Each link is weighed only once, so random weights need not be remembered.
+     */
+    @FunctionalInterface
+    public interface Weights<C> {
+        float weight(C from, C to);
+    }
+
+    private final Weights<C> weights;
+
+    public Prims() {
+        this((from, to) -> Utils.RANDOM.nextFloat());
+    }
+
+    public Prims(Weights<C> weights) {
+        this.weights = Objects.requireNonNull(weights);
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * Each step offers the neighbours of the cell last added to the maze to the heap, and then
+     * links the cell with the lightest link to the maze.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        int size = grid.getSize(), columns = grid.getColumns();
+        List<List<C>> cells = grid.getGrid();
+        if (size == 0) return n -> false;
+
+        Heap heap = new Heap(size);
+        int[] parent = new int[size];
+        BitSet carved = new BitSet(size);
+        Neighbours<C> neighbours = new Neighbours<>();
+
+        C first = grid.getRandom();
+        carved.set(first.getOrdinal());
+        return new Steps() {
+            private C cell = first;
+            private boolean done = false;
+            private long step = 0;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && !done; s++, step++) {
+                    grid.checkpoint(step);
+                    cell.getNeighbours(neighbours);
+                    for (int i = 0; i < neighbours.size(); i++) {
+                        C neighbour = neighbours.get(i);
+                        int ordinal = neighbour.getOrdinal();
+                        if (ordinal >= size || carved.get(ordinal) || neighbour.hasLinks()) continue;
+                        if (Math.abs(neighbour.getRow() - cell.getRow()) + Math.abs(neighbour.getColumn() - cell.getColumn()) != 1) continue;
+                        float weight = weights.weight(cell, neighbour);
+                        if (heap.offer(ordinal, weight)) parent[ordinal] = cell.getOrdinal();
+                    }
+
+                    if (heap.isEmpty()) {
+                        done = true;
+                        break;
+                    }
+                    int ordinal = heap.poll();
+                    carved.set(ordinal);
+                    cell = cells.get(ordinal / columns).get(ordinal % columns);
+                    C from = cells.get(parent[ordinal] / columns).get(parent[ordinal] % columns);
+                    cell.link(from, true);
+                }
+                return !done;
+            }
+        };
+    }
+
+    /**
+     * A binary min-heap of ordinals with their keys, and the position of each ordinal in the heap.
+     */
+    private static final class Heap {
+        private final int[] heap, position;
+        private final float[] key;
+        private int size;
+
+        Heap(int capacity) {
+            heap = new int[capacity];
+            position = new int[capacity];
+            key = new float[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() { return size == 0; }
+
+        /**
+         * Adds the ordinal, or lowers its key, returning whether the key was changed.
+         */
+        boolean offer(int ordinal, float weight) {
+            int index = position[ordinal];
+            if (index < 0) {
+                index = size++;
+                heap[index] = ordinal;
+                position[ordinal] = index;
+            } else if (weight >= key[ordinal]) {
+                return false;
+            }
+            key[ordinal] = weight;
+            up(index);
+            return true;
+        }
+
+        int poll() {
+            int top = heap[0];
+            position[top] = -1;
+            if (--size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                down(0);
+            }
+            return top;
+        }
+
+        private void up(int index) {
+            int ordinal = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (key[heap[parent]] <= key[ordinal]) break;
+                heap[index] = heap[parent];
+                position[heap[index]] = index;
+                index = parent;
+            }
+            heap[index] = ordinal;
+            position[ordinal] = index;
+        }
+
+        private void down(int index) {
+            int ordinal = heap[index];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) child++;
+                if (key[heap[child]] >= key[ordinal]) break;
+                heap[index] = heap[child];
+                position[heap[index]] = index;
+                index = child;
+            }
+            heap[index] = ordinal;
+            position[ordinal] = index;
+        }
+    }
+
+    public String getName() { return "Prims"; }
+}
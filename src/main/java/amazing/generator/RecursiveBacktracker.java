@@ -22,17 +22,19 @@ package amazing.generator;
 
 import static amazing.Utils.sample;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.List;
+import java.util.BitSet;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import amazing.grid.Cell;
 import amazing.grid.Grid;
+import amazing.grid.Neighbours;
 
 /**
  * Recursive backtracker algorithm for maze generation.
+ *
+ * The stack holds cell {@link Cell#getOrdinal() ordinals}, with the cells looked up in a table
+ * filled once per maze, and candidates are gathered in a fixed {@link Neighbours buffer}, so
+ * the steps themselves allocate nothing.
  */
 public class RecursiveBacktracker<C extends Cell<C>> extends Generator<C> {
    
@@ -47,27 +49,62 @@ public class RecursiveBacktracker<C extends Cell<C>> extends Generator<C> {
     }
 
     public void accept(Grid<C> grid) {
-        Deque<C> stack = new ArrayDeque<>();
-        if (start.isEmpty()) {
-            stack.push(grid.getRandom());
-        } else {
-            stack.push(start.get());
+        start(grid).complete();
+    }
+
+    /**
+     * Each step carves from the cell on top of the stack to one of its unvisited neighbours,
+     * or backtracks by one cell if there are none.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Steps start(Grid<C> grid) {
+        int capacity = grid.getCapacity();
+        Object[] cells = new Object[capacity];
+        long count = 0;
+        for (C cell : grid) {
+            grid.checkpoint(count++);
+            cells[cell.getOrdinal()] = cell;
         }
-        
-        while (!stack.isEmpty()) {
-            C current = stack.peek();
-            List<C> neighbours = current.getNeighbours().stream()
-                    .filter(n -> n.getLinks().isEmpty())
-                    .collect(Collectors.toList());
-            if (neighbours.isEmpty()) {
-                stack.pop();
-            } else {
-                C neighbour = sample(neighbours);
-                current.link(neighbour, true);
-                stack.push(neighbour);
+
+        C first = start.orElseGet(grid::getRandom);
+        cells[first.getOrdinal()] = first;
+
+        int[] stack = new int[capacity];
+        BitSet visited = new BitSet(capacity);
+        stack[0] = first.getOrdinal();
+        visited.set(first.getOrdinal());
+
+        Neighbours<C> neighbours = new Neighbours<>(), unvisited = new Neighbours<>();
+        return new Steps() {
+            private int top = 1;
+            private long step = 0;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n && top > 0; s++, step++) {
+                    grid.checkpoint(step);
+                    C current = (C) cells[stack[top - 1]];
+                    current.getNeighbours(neighbours);
+                    unvisited.clear();
+                    for (int i = 0; i < neighbours.size(); i++) {
+                        C neighbour = neighbours.get(i);
+                        if (!visited.get(neighbour.getOrdinal()) && !neighbour.hasLinks()) unvisited.add(neighbour);
+                    }
+                    if (unvisited.isEmpty()) {
+                        top--;
+                    } else {
+                        C neighbour = sample(unvisited);
+                        current.link(neighbour, true);
+                        visited.set(neighbour.getOrdinal());
+                        cells[neighbour.getOrdinal()] = neighbour;
+                        stack[top++] = neighbour.getOrdinal();
+                    }
+                }
+                return top > 0;
             }
-        }
+        };
     }
 
     public String getName() { return "Recursive Backtracker"; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+
+/**
+ * Recursive division algorithm for maze generation.
+ *
+ * Starting from a grid with every neighbour linked, each chamber is split by a wall with a
+ * single passage through it, until the chambers are one cell wide. The two halves of a split
+ * are independent, so chambers larger than the threshold are divided in parallel on the
+ * fork-join pool, each with a random stream split from its parent, giving the same maze
+ * whatever the number of threads. The walls are recorded as flags for each position and the
+ * links made in one pass at the end, because linking updates both cells and the grid. Removed
+ * cells are never linked, and passages are only placed where both cells are present.
+ */
+public class RecursiveDivision<C extends Cell<C>> extends Generator<C> {
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /** Flags for the open passages from each position. */
+    private static final byte EAST = 1, SOUTH = 2;
+
+    private final int threshold;
+
+    public RecursiveDivision() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold Chambers with fewer cells than this are divided without forking
+     */
+    public RecursiveDivision(int threshold) {
+        this.threshold = threshold;
+    }
+
+    public void accept(Grid<C> grid) {
+        int rows = grid.getRows(), columns = grid.getColumns();
+        List<List<C>> cells = grid.getGrid();
+        byte[] open = new byte[grid.getSize()];
+
+        IntStream.range(0, rows).parallel().forEach(r -> {
+            grid.checkpoint();
+            List<C> row = cells.get(r);
+            for (int c = 0; c < columns; c++) {
+                C cell = row.get(c);
+                open[r * columns + c] = (byte) ((cell.hasEast() ? EAST : 0) | (cell.hasSouth() ? SOUTH : 0));
+            }
+        });
+
+        ForkJoinPool.commonPool().invoke(new Chamber(grid, open, columns, 0, 0, rows, columns, new SplittableRandom(RANDOM.nextLong())));
+
+        for (int r = 0; r < rows; r++) {
+            grid.checkpoint();
+            List<C> row = cells.get(r);
+            for (int c = 0; c < columns; c++) {
+                byte flags = open[r * columns + c];
+                if (flags == 0) continue;
+                C cell = row.get(c);
+                if ((flags & EAST) != 0) cell.link(cell.getEast().get(), true);
+                if ((flags & SOUTH) != 0) cell.link(cell.getSouth().get(), true);
+            }
+        }
+    }
+
+    /**
+     * Divides the chamber with its top left cell at {@code (left, top)}, closing passages in {@code open}.
+     */
+    private final class Chamber extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Grid<C> grid;
+        private final byte[] open;
+        private final int columns, top, left, height, width;
+        private final SplittableRandom random;
+
+        Chamber(Grid<C> grid, byte[] open, int columns, int top, int left, int height, int width, SplittableRandom random) {
+            this.grid = grid;
+            this.open = open;
+            this.columns = columns;
+            this.top = top;
+            this.left = left;
+            this.height = height;
+            this.width = width;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (height <= 1 || width <= 1) return;
+            if ((long) height * width >= threshold) grid.checkpoint();
+
+            boolean horizontal = height > width || (height == width && random.nextBoolean());
+            Chamber first, second;
+            if (horizontal) {
+                int wall = top + random.nextInt(height - 1);
+                close(wall, left, 0, 1, width, SOUTH);
+                first = new Chamber(grid, open, columns, top, left, wall - top + 1, width, random.split());
+                second = new Chamber(grid, open, columns, wall + 1, left, top + height - wall - 1, width, random);
+            } else {
+                int wall = left + random.nextInt(width - 1);
+                close(top, wall, 1, 0, height, EAST);
+                first = new Chamber(grid, open, columns, top, left, height, wall - left + 1, random.split());
+                second = new Chamber(grid, open, columns, top, wall + 1, height, left + width - wall - 1, random);
+            }
+
+            if ((long) height * width >= threshold) {
+                invokeAll(first, second);
+            } else {
+                first.compute();
+                second.compute();
+            }
+        }
+
+        /**
+         * Closes the passages along a wall, leaving one open at a random position where there was one.
+         */
+        private void close(int row, int column, int dr, int dc, int length, byte flag) {
+            int passage = -1, candidates = 0;
+            for (int i = 0; i < length; i++) {
+                int index = (row + i * dr) * columns + column + i * dc;
+                if ((open[index] & flag) != 0) {
+                    if (random.nextInt(++candidates) == 0) passage = index;
+                    open[index] &= ~flag;
+                }
+            }
+            if (passage >= 0) open[passage] |= flag;
+        }
+    }
+
+    public String getName() { return "Recursive Division"; }
+}
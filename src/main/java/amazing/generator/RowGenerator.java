@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+
+/**
+ * A {@link Generator generator} that only decides links within each row, such as the
+ * {@link BinaryTree binary tree} and {@link Sidewinder sidewinder} algorithms.
+ *
+ * Each row is carved with its own random stream, split in row order from a single seed,
+ * into a flag per position saying whether to link north or east, and the links are then
+ * made a row per step. In {@link #parallel(boolean) parallel} mode, grids of at least
+ * {@link #MIN_PARALLEL} cells have their rows carved on the fork-join pool when it has more than
+ * one thread, and if the grid is {@link Grid#isConcurrent() concurrent} the rows for each
+ * call to {@link Steps#advance(int)} are linked in bands at the same time. East links stay in
+ * their row and north links in their band, apart from those of the first row of each band,
+ * which are made once the bands have finished. Either way the maze is the same as a serial
+ * run from the same {@link amazing.Utils#RANDOM seed}.
+ */
+public abstract class RowGenerator<C extends Cell<C>> extends Generator<C> {
+    /** Flags for the links decided for each position. */
+    protected static final byte NORTH = 1, EAST = 2;
+
+    /** Most bands of rows linked at once, and fewest rows in each band. */
+    private static final int BANDS = 4 * ForkJoinPool.getCommonPoolParallelism(), MIN_BAND = 16;
+
+    /** Fewest cells for which parallel mode is used, below which the fork-join overhead outweighs the gain. */
+    public static final int MIN_PARALLEL = 1 << 18;
+
+    private boolean parallel = false;
+
+    public RowGenerator<C> parallel(boolean enable) {
+        this.parallel = enable;
+        return this;
+    }
+    public boolean isParallel() { return parallel; }
+
+    /**
+     * Decides the links for one row, setting flags in {@code links} from {@code offset}.
+     */
+    protected abstract void carve(List<C> row, SplittableRandom random, byte[] links, int offset);
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * The links for every row are decided when starting, and each step then links one row.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        int rows = grid.getRows(), columns = grid.getColumns();
+        List<List<C>> cells = grid.getGrid();
+
+        SplittableRandom seed = new SplittableRandom(RANDOM.nextLong());
+        SplittableRandom[] streams = new SplittableRandom[rows];
+        for (int r = 0; r < rows; r++) streams[r] = seed.split();
+
+        byte[] links = new byte[grid.getSize()];
+        boolean parallel = this.parallel && grid.getSize() >= MIN_PARALLEL && ForkJoinPool.getCommonPoolParallelism() > 1;
+        IntStream range = IntStream.range(0, rows);
+        if (parallel) range = range.parallel();
+        range.forEach(r -> {
+            grid.checkpoint();
+            carve(cells.get(r), streams[r], links, r * columns);
+        });
+
+        return new Steps() {
+            private int r = 0;
+
+            @Override
+            public boolean advance(int n) {
+                int end = (int) Math.min(rows, (long) r + n);
+                int bands = parallel && grid.isConcurrent() ? Math.min(BANDS, (end - r) / MIN_BAND) : 1;
+                if (bands > 1) {
+                    int from = r, length = end - r;
+                    grid.concurrently(bands, b -> {
+                        int first = from + (int) ((long) b * length / bands), last = from + (int) ((long) (b + 1) * length / bands);
+                        for (int row = first; row < last; row++) {
+                            grid.checkpoint();
+                            link(row, row > first, true);
+                        }
+                    });
+                    for (int b = 0; b < bands; b++) {
+                        link(from + (int) ((long) b * length / bands), true, false);
+                    }
+                    r = end;
+                } else {
+                    for (; r < end; r++) {
+                        grid.checkpoint();
+                        link(r, true, true);
+                    }
+                }
+                return r < rows;
+            }
+
+            /**
+             * Makes the north and east links decided for a row, either of which may be skipped.
+             */
+            private void link(int r, boolean north, boolean east) {
+                List<C> row = cells.get(r);
+                for (int c = 0; c < columns; c++) {
+                    byte flags = links[r * columns + c];
+                    if (flags == 0) continue;
+                    C cell = row.get(c);
+                    if (north && (flags & NORTH) != 0) cell.link(cell.getNorth().get(), true);
+                    if (east && (flags & EAST) != 0) cell.link(cell.getEast().get(), true);
+                }
+            }
+        };
+    }
+}
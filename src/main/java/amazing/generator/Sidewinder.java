@@ -20,38 +20,33 @@
  */
 package amazing.generator;
 
-import static amazing.Utils.choose;
-import static amazing.Utils.sample;
-
-import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import amazing.grid.Cell;
-import amazing.grid.Grid;
 
 /**
  * Sidewinder algorithm for maze generation.
  */
-public class Sidewinder<C extends Cell<C>> extends Generator<C> {
-    
-    public void accept(Grid<C> grid) {
-        for (List<C> row : grid.getGrid()) {
-            List<C> run = new ArrayList<>();
-            for (C cell : row) {
-                run.add(cell);
-                boolean eastern = cell.getEast().isEmpty();
-                boolean northern = cell.getNorth().isEmpty();
-                boolean close = eastern || (!northern && choose());
-                if (close) {
-                    C member = sample(run);
-                    member.getNorth().ifPresent(n -> member.link(n, true));
-                    run.clear();
-                } else {
-                    cell.link(cell.getEast().get(), true);
-                }
+public class Sidewinder<C extends Cell<C>> extends RowGenerator<C> {
+
+    @Override
+    protected void carve(List<C> row, SplittableRandom random, byte[] links, int offset) {
+        int start = 0;
+        for (int c = 0; c < row.size(); c++) {
+            C cell = row.get(c);
+            boolean eastern = !cell.hasEast();
+            boolean northern = !cell.hasNorth();
+            boolean close = eastern || (!northern && random.nextBoolean());
+            if (close) {
+                int member = start + random.nextInt(c - start + 1);
+                if (row.get(member).hasNorth()) links[offset + member] |= NORTH;
+                start = c + 1;
+            } else {
+                links[offset + c] |= EAST;
             }
         }
     }
 
     public String getName() { return "Sidewinder"; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.SubCell;
+
+/**
+ * Generates a maze by splitting the grid into tiles and running another
+ * {@link Generator generator} on each of them in parallel.
+ *
+ * Each tile is a {@link Grid#subGrid(int, int, int, int) window} onto the grid, carved in place
+ * by a new inner generator, so a {@link amazing.grid.WeaveGrid weave grid} is tunnelled as usual.
+ * The tiles are carved {@link Grid#concurrently(int, java.util.function.IntConsumer) concurrently}
+ * where the grid allows it. They are joined by opening one passage across the seam for each edge
+ * of a random spanning tree over the tiles, so if the inner generator makes perfect mazes the
+ * result is also a single connected maze with no loops. Seams avoid removed cells, and a seam
+ * with no cells left on both sides is not used.
+ */
+public class TiledGenerator<C extends Cell<C>> extends Generator<C> {
+    public static final int DEFAULT_TILES = 4;
+
+    private final Supplier<? extends Generator<SubCell<C>>> inner;
+    private final String name;
+    private final int tiles;
+
+    public TiledGenerator(Supplier<? extends Generator<SubCell<C>>> inner) {
+        this(inner, DEFAULT_TILES);
+    }
+
+    /**
+     * Creates a generator using a new inner generator from the supplier for each of the
+     * {@code tiles * tiles} tiles.
+     */
+    public TiledGenerator(Supplier<? extends Generator<SubCell<C>>> inner, int tiles) {
+        if (tiles < 1) throw new IllegalArgumentException("Tiles must be positive: " + tiles);
+        this.inner = Objects.requireNonNull(inner);
+        this.name = inner.get().getName();
+        this.tiles = tiles;
+    }
+
+    public void accept(Grid<C> grid) {
+        int down = Math.min(tiles, grid.getRows()), across = Math.min(tiles, grid.getColumns());
+        if (down == 0 || across == 0) return;
+        int[] top = bounds(grid.getRows(), down), left = bounds(grid.getColumns(), across);
+
+        grid.concurrently(down * across, t -> {
+            int row = t / across, column = t % across;
+            grid.checkpoint();
+            inner.get().accept(grid.subGrid(top[row], left[column], top[row + 1] - top[row], left[column + 1] - left[column]));
+        });
+
+        stitch(grid, down, across, top, left);
+    }
+
+    /**
+     * Splits {@code length} into {@code parts} nearly equal ranges, returning their boundaries.
+     */
+    private static int[] bounds(int length, int parts) {
+        int[] bounds = new int[parts + 1];
+        for (int i = 0; i <= parts; i++) bounds[i] = (int) ((long) i * length / parts);
+        return bounds;
+    }
+
+    /**
+     * Joins the tiles along a random spanning tree, found with Kruskals algorithm over the
+     * seams between neighbouring tiles, opening one passage at a random point on each seam.
+     */
+    private void stitch(Grid<C> grid, int down, int across, int[] top, int[] left) {
+        int count = down * across;
+        int[] seams = new int[2 * count], set = new int[count];
+        int n = 0;
+        for (int t = 0; t < count; t++) {
+            set[t] = t;
+            if (t / across < down - 1) seams[n++] = 2 * t;
+            if (t % across < across - 1) seams[n++] = 2 * t + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = RANDOM.nextInt(i + 1), swap = seams[i];
+            seams[i] = seams[j];
+            seams[j] = swap;
+        }
+
+        for (int i = 0; i < n; i++) {
+            int t = seams[i] / 2;
+            boolean south = seams[i] % 2 == 0;
+            int other = south ? t + across : t + 1;
+            int a = find(set, t), b = find(set, other);
+            if (a == b) continue;
+
+            int row = t / across, column = t % across;
+            boolean open = south ?
+                    open(grid, top[row + 1] - 1, left[column], left[column + 1] - left[column], true) :
+                    open(grid, top[row], left[column + 1] - 1, top[row + 1] - top[row], false);
+            if (open) set[a] = b;
+        }
+    }
+
+    /**
+     * Opens a passage south or east from a random cell on a seam of {@code length} cells starting at
+     * {@code (column, row)}, moving along the seam to the next cell if a cell on either side of it
+     * has been removed. Returns {@code false} if no cell on the seam can be linked across it.
+     */
+    private boolean open(Grid<C> grid, int row, int column, int length, boolean south) {
+        int start = RANDOM.nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int offset = (start + i) % length;
+            Optional<C> cell = south ? grid.getCell(row, column + offset) : grid.getCell(row + offset, column);
+            Optional<C> across = cell.flatMap(c -> south ? c.getSouth() : c.getEast());
+            if (across.isPresent()) {
+                cell.get().link(across.get(), true);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int find(int[] set, int t) {
+        while (set[t] != t) t = set[t] = set[set[t]];
+        return t;
+    }
+
+    public String getName() { return String.format("Tiled %s", name); }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.generator;
+
+import static amazing.Utils.RANDOM;
+
+import amazing.grid.Cell;
+import amazing.grid.Grid;
+import amazing.grid.Neighbours;
+
+/**
+ * Wilsons algorithm for maze generation.
+ *
+ * Loop-erased random walks are made from each cell not yet in the maze until they reach it,
+ * giving a uniform spanning tree. Each walk records only the last exit from every cell, so
+ * loops are erased without being tracked. The separate regions of the grid, such as those
+ * left by {@link Grid#delete(float) deleting} cells, are found first and each is given its
+ * own starting cell, so a walk can always finish.
+ */
+public class Wilsons<C extends Cell<C>> extends Generator<C> {
+    /**
+     * The cells and regions of the grid, and which cells are already in the maze, indexed by
+     * {@link Cell#getOrdinal() ordinal}.
+     */
+    protected class State {
+        protected final Object[] cells;
+        protected final int[] region, next;
+        protected final boolean[] visited;
+        protected int[] sizes, roots;
+        protected int regions;
+        protected long steps;
+
+        protected State(Grid<C> grid, Neighbours<C> neighbours) {
+            int capacity = grid.getCapacity();
+            this.cells = new Object[capacity];
+            this.region = new int[capacity];
+            this.next = new int[capacity];
+            this.visited = new boolean[capacity];
+
+            long step = 0;
+            for (C cell : grid) {
+                grid.checkpoint(step++);
+                cells[cell.getOrdinal()] = cell;
+            }
+
+            // Label each region by breadth first search, choosing its root by reservoir sampling
+            int[] queue = new int[capacity];
+            sizes = new int[capacity + 1];
+            roots = new int[capacity + 1];
+            for (int start = 0; start < capacity; start++) {
+                if (cells[start] == null || region[start] != 0) continue;
+                int label = ++regions, head = 0, tail = 0;
+                region[start] = label;
+                queue[tail++] = start;
+                while (head < tail) {
+                    grid.checkpoint(step++);
+                    int ordinal = queue[head++];
+                    if (RANDOM.nextInt(++sizes[label]) == 0) roots[label] = ordinal;
+                    cell(ordinal).getNeighbours(neighbours);
+                    for (int i = 0; i < neighbours.size(); i++) {
+                        int n = neighbours.get(i).getOrdinal();
+                        if (region[n] == 0) {
+                            region[n] = label;
+                            queue[tail++] = n;
+                        }
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        protected C cell(int ordinal) { return (C) cells[ordinal]; }
+    }
+
+    public void accept(Grid<C> grid) {
+        start(grid).complete();
+    }
+
+    /**
+     * After {@link #seed(Grid, State, Neighbours) seeding}, each step moves the current walk to a
+     * random neighbour, or once it has reached the maze, adds one cell of its loop-erased path.
+     */
+    @Override
+    public Steps start(Grid<C> grid) {
+        Neighbours<C> neighbours = new Neighbours<>();
+        State state = new State(grid, neighbours);
+        Steps seeding = seed(grid, state, neighbours);
+
+        return new Steps() {
+            private boolean seeded = false, walking = false;
+            private int start = 0, ordinal = -1;
+
+            @Override
+            public boolean advance(int n) {
+                for (int s = 0; s < n; s++) {
+                    if (!seeded) {
+                        seeded = !seeding.advance(1);
+                        if (!seeded) continue;
+                    }
+                    if (ordinal < 0) {
+                        if (!more()) return false;
+                        ordinal = start;
+                        walking = true;
+                    }
+                    if (walking) {
+                        if (!state.visited[ordinal]) {
+                            grid.checkpoint(state.steps++);
+                            state.cell(ordinal).getNeighbours(neighbours);
+                            int next = neighbours.sample(RANDOM).getOrdinal();
+                            state.next[ordinal] = next;
+                            ordinal = next;
+                            continue;
+                        }
+                        walking = false;
+                        ordinal = start;
+                    }
+                    state.visited[ordinal] = true;
+                    C cell = state.cell(ordinal);
+                    ordinal = state.next[ordinal];
+                    cell.link(state.cell(ordinal), true);
+                    if (state.visited[ordinal]) ordinal = -1;
+                }
+                return !seeded || ordinal >= 0 || more();
+            }
+
+            /**
+             * Moves the start on to the next cell not yet in the maze, returning whether there is one.
+             */
+            private boolean more() {
+                while (start < state.cells.length && (state.cells[start] == null || state.visited[start])) start++;
+                return start < state.cells.length;
+            }
+        };
+    }
+
+    /**
+     * Adds the first cells to the maze, by default the root of every region that has none yet,
+     * returning the {@link Steps steps} for any seeding that is carried out a step at a time.
+     */
+    protected Steps seed(Grid<C> grid, State state, Neighbours<C> neighbours) {
+        boolean[] seeded = new boolean[state.regions + 1];
+        for (int ordinal = 0; ordinal < state.cells.length; ordinal++) {
+            if (state.visited[ordinal]) seeded[state.region[ordinal]] = true;
+        }
+        for (int label = 1; label <= state.regions; label++) {
+            if (!seeded[label]) state.visited[state.roots[label]] = true;
+        }
+        return n -> false;
+    }
+
+    public String getName() { return "Wilsons"; }
+}
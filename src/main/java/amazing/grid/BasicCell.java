@@ -25,27 +25,52 @@ import java.util.Optional;
 import java.util.Set;
 
 @SuppressWarnings("unchecked")
-public class BasicCell<B extends BasicCell<B>> implements Cell<B> {
-    protected int row, column;
+public class BasicCell<B extends BasicCell<B>> implements Cell<B>, Cell.Wired<B> {
+    protected int row, column, ordinal;
     protected Optional<B> north = Optional.empty(), south = Optional.empty(), east = Optional.empty(), west = Optional.empty();
     protected Set<B> links;
+    protected Grid<B> grid;
 
-    public BasicCell(int row, int column) {
+    /** This cell as an {@link Optional}, shared by the neighbours that point to it. */
+    final Optional<B> self = Optional.of((B) this);
+
+    public BasicCell(int row, int column, int ordinal) {
+        this(row, column, ordinal, null);
+    }
+
+    public BasicCell(int row, int column, int ordinal, Grid<B> grid) {
         this.row = row;
         this.column = column;
+        this.ordinal = ordinal;
+        this.grid = grid;
         this.links = new LinkedHashSet<>();
     }
 
     public void link(B target) { link(target, true); }
 
     public void link(B target, boolean bidi) {
-        getLinks().add(target);
-        if (bidi) target.link((B) this, false);
+        boolean added = getLinks().add(target);
+        if (added) changed();
+        if (bidi) {
+            target.link((B) this, false);
+            if (added && grid != null) grid.fireLinked((B) this, target);
+        }
     }
 
     public void unlink(B target, boolean bidi) {
-        links.remove(target);
-        if (bidi) target.unlink((B) this, false);
+        boolean removed = links.remove(target);
+        if (removed) changed();
+        if (bidi) {
+            target.unlink((B) this, false);
+            if (removed && grid != null) grid.fireUnlinked((B) this, target);
+        }
+    }
+
+    /**
+     * Tells the owning {@link Grid grid} that the links of this cell have changed.
+     */
+    protected void changed() {
+        if (grid != null) grid.degreeChanged((B) this, links.size());
     }
 
     public Set<B> getLinks() { return links; }
@@ -62,7 +87,15 @@ public class BasicCell<B extends BasicCell<B>> implements Cell<B> {
         east.ifPresent(c -> neighbours.add(c));
         return neighbours;
     }
-    public boolean hasNeighbours() { return getNeighbours().size() > 0; }
+    public boolean hasNeighbours() { return north.isPresent() || south.isPresent() || west.isPresent() || east.isPresent(); }
+
+    public void getNeighbours(Neighbours<B> neighbours) {
+        neighbours.clear();
+        if (north.isPresent()) neighbours.add(north.get());
+        if (south.isPresent()) neighbours.add(south.get());
+        if (west.isPresent()) neighbours.add(west.get());
+        if (east.isPresent()) neighbours.add(east.get());
+    }
 
     public boolean hasNorth() { return north.isPresent(); }
     public boolean hasSouth() { return south.isPresent(); }
@@ -79,8 +112,18 @@ public class BasicCell<B extends BasicCell<B>> implements Cell<B> {
     public void setWest(Optional<B> west) { this.west = west; }
     public void setEast(Optional<B> east) { this.east = east; }
 
+    /**
+     * Moves an unlinked cell to another position when its {@link Grid#resize(int, int) grid is resized}.
+     */
+    void place(int row, int column, int ordinal) {
+        this.row = row;
+        this.column = column;
+        this.ordinal = ordinal;
+    }
+
     public int getRow() { return row; }
     public int getColumn() { return column; }
+    public int getOrdinal() { return ordinal; }
 
     public String toString() {
         return String.format("Cell at (%d, %d)", column, row);
@@ -92,4 +135,8 @@ public class BasicCell<B extends BasicCell<B>> implements Cell<B> {
                 this.row == ((B) other).row &&
                 this.column == ((B) other).column;
     }
+
+    public int hashCode() {
+        return ordinal;
+    }
 }
\ No newline at end of file
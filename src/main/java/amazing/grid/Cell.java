@@ -21,40 +21,24 @@
 package amazing.grid;
 
 import java.util.Optional;
-import java.util.Set;
 
 /**
- * A single {@link Cell cell} in a Maze {@link Grid grid}.
+ * A single {@link Cell cell} in a Maze {@link Grid grid}, which can be linked to its neighbours.
  */
-public interface Cell<C extends Cell<C>> {
+public interface Cell<C extends Cell<C>> extends CellView<C> {
 
     void link(C target, boolean bidi);
     void unlink(C target, boolean bidi);
 
-    Set<C> getLinks();
-    boolean hasLinks();
-
-    boolean linked(C target);
-    boolean linked(Optional<C> target);
-
-    Set<C> getNeighbours();
-    boolean hasNeighbours();
-
-    boolean hasNorth();
-    boolean hasSouth();
-    boolean hasWest();
-    boolean hasEast();
-
-    Optional<C> getNorth();
-    Optional<C> getSouth();
-    Optional<C> getWest();
-    Optional<C> getEast();
-
-    void setNorth(Optional<C> north);
-    void setSouth(Optional<C> south);
-    void setWest(Optional<C> west);
-    void setEast(Optional<C> east);
-
-    int getRow();
-    int getColumn();
-}
\ No newline at end of file
+    /**
+     * A cell that holds references to its neighbours, which its {@link Grid grid} sets when it
+     * is configured and clears when a neighbour is removed. Cells whose neighbours follow from
+     * their position, such as {@link CompactCell compact cells}, do not need this.
+     */
+    interface Wired<C extends Cell<C>> {
+        void setNorth(Optional<C> north);
+        void setSouth(Optional<C> south);
+        void setWest(Optional<C> west);
+        void setEast(Optional<C> east);
+    }
+}
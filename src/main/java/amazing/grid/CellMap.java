@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from {@link Cell cells} to {@code int} values, stored in an array indexed
+ * by {@link Cell#getOrdinal() ordinal} so that lookups do not hash or box.
+ */
+public class CellMap<C extends CellView<C>> implements Distances.Plane<C> {
+    private CellSet<C> keys;
+    private int[] values;
+
+    public CellMap() {
+        this(16);
+    }
+
+    public CellMap(int capacity) {
+        this.keys = new CellSet<>(capacity);
+        this.values = new int[Math.max(capacity, 1)];
+    }
+
+    public boolean containsKey(C cell) { return keys.contains(cell); }
+
+    public int get(C cell) {
+        if (!keys.contains(cell)) throw new NoSuchElementException(String.format("No value for %s", cell));
+        return values[cell.getOrdinal()];
+    }
+
+    public int get(C cell, int def) {
+        return keys.contains(cell) ? values[cell.getOrdinal()] : def;
+    }
+
+    public void put(C cell, int value) {
+        int ordinal = cell.getOrdinal();
+        if (ordinal >= values.length) {
+            values = Arrays.copyOf(values, Math.max(ordinal + 1, values.length * 2));
+        }
+        keys.add(cell);
+        values[ordinal] = value;
+    }
+
+    public boolean remove(C cell) { return keys.remove(cell); }
+
+    public void clear() { keys.clear(); }
+
+    public int size() { return keys.size(); }
+    public boolean isEmpty() { return keys.isEmpty(); }
+
+    public Set<C> keySet() { return Collections.unmodifiableSet(keys); }
+}
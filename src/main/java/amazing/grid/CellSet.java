@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link java.util.Set set} of {@link Cell cells} stored as a {@link BitSet} indexed
+ * by {@link Cell#getOrdinal() ordinal}.
+ *
+ * The cells themselves are kept in an array alongside the bits so the set can
+ * be iterated, and both grow as required.
+ */
+public class CellSet<C extends CellView<C>> extends AbstractSet<C> {
+    private BitSet bits;
+    private Object[] cells;
+    private int size;
+
+    public CellSet() {
+        this(16);
+    }
+
+    public CellSet(int capacity) {
+        this.bits = new BitSet(capacity);
+        this.cells = new Object[Math.max(capacity, 1)];
+    }
+
+    private void ensure(int ordinal) {
+        if (ordinal >= cells.length) {
+            cells = Arrays.copyOf(cells, Math.max(ordinal + 1, cells.length * 2));
+        }
+    }
+
+    @Override
+    public boolean add(C cell) {
+        int ordinal = cell.getOrdinal();
+        if (bits.get(ordinal)) return false;
+        ensure(ordinal);
+        bits.set(ordinal);
+        cells[ordinal] = cell;
+        size++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object other) {
+        if (!(other instanceof CellView)) return false;
+        int ordinal = ((C) other).getOrdinal();
+        if (!bits.get(ordinal) || !cells[ordinal].equals(other)) return false;
+        bits.clear(ordinal);
+        cells[ordinal] = null;
+        size--;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object other) {
+        if (!(other instanceof CellView)) return false;
+        int ordinal = ((C) other).getOrdinal();
+        return bits.get(ordinal) && cells[ordinal].equals(other);
+    }
+
+    public boolean contains(int ordinal) { return bits.get(ordinal); }
+
+    @SuppressWarnings("unchecked")
+    public C get(int ordinal) { return bits.get(ordinal) ? (C) cells[ordinal] : null; }
+
+    @Override
+    public void clear() {
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            cells[i] = null;
+        }
+        bits.clear();
+        size = 0;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public Iterator<C> iterator() {
+        return new Iterator<C>() {
+            private int next = bits.nextSetBit(0), last = -1;
+
+            @Override
+            public boolean hasNext() { return next >= 0; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public C next() {
+                if (next < 0) throw new NoSuchElementException();
+                last = next;
+                next = bits.nextSetBit(next + 1);
+                return (C) cells[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                bits.clear(last);
+                cells[last] = null;
+                size--;
+                last = -1;
+            }
+        };
+    }
+}
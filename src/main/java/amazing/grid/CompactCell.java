@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A lightweight {@link Cell cell} view onto a position in a {@link CompactGrid compact grid}.
+ *
+ * Instances hold no state of their own apart from their position, and are created
+ * on demand, so two instances for the same position are {@link #equals(Object) equal}.
+ */
+public class CompactCell implements Cell<CompactCell> {
+    private final CompactGrid grid;
+    private final int row, column;
+
+    public CompactCell(int row, int column, CompactGrid grid) {
+        this.row = row;
+        this.column = column;
+        this.grid = grid;
+    }
+
+    public CompactGrid getGrid() { return grid; }
+
+    public void link(CompactCell target) { link(target, true); }
+
+    /**
+     * Links are stored once per pair of cells, so they are always bidirectional.
+     */
+    public void link(CompactCell target, boolean bidi) { grid.link(this, target, true); }
+    public void unlink(CompactCell target, boolean bidi) { grid.link(this, target, false); }
+
+    public Set<CompactCell> getLinks() {
+        Set<CompactCell> links = new LinkedHashSet<>();
+        if (grid.linkedSouth(row - 1, column)) links.add(grid.cell(row - 1, column));
+        if (grid.linkedSouth(row, column)) links.add(grid.cell(row + 1, column));
+        if (grid.linkedEast(row, column - 1)) links.add(grid.cell(row, column - 1));
+        if (grid.linkedEast(row, column)) links.add(grid.cell(row, column + 1));
+        return links;
+    }
+    public boolean hasLinks() {
+        return grid.linkedSouth(row - 1, column) || grid.linkedSouth(row, column) ||
+                grid.linkedEast(row, column - 1) || grid.linkedEast(row, column);
+    }
+
+    public boolean linked(CompactCell target) { return grid.linked(this, target); }
+    public boolean linked(Optional<CompactCell> target) { return target.isEmpty() ? false : linked(target.get()); }
+
+    public Set<CompactCell> getNeighbours() {
+        Set<CompactCell> neighbours = new LinkedHashSet<>();
+        getNorth().ifPresent(c -> neighbours.add(c));
+        getSouth().ifPresent(c -> neighbours.add(c));
+        getWest().ifPresent(c -> neighbours.add(c));
+        getEast().ifPresent(c -> neighbours.add(c));
+        return neighbours;
+    }
+    public boolean hasNeighbours() { return hasNorth() || hasSouth() || hasWest() || hasEast(); }
+
+    public void getNeighbours(Neighbours<CompactCell> neighbours) {
+        neighbours.clear();
+        if (hasNorth()) neighbours.add(grid.cell(row - 1, column));
+        if (hasSouth()) neighbours.add(grid.cell(row + 1, column));
+        if (hasWest()) neighbours.add(grid.cell(row, column - 1));
+        if (hasEast()) neighbours.add(grid.cell(row, column + 1));
+    }
+
+    public boolean hasNorth() { return grid.isNeighbour(row, column, row - 1, column); }
+    public boolean hasSouth() { return grid.isNeighbour(row, column, row + 1, column); }
+    public boolean hasWest() { return grid.isNeighbour(row, column, row, column - 1); }
+    public boolean hasEast() { return grid.isNeighbour(row, column, row, column + 1); }
+
+    public Optional<CompactCell> getNorth() { return hasNorth() ? Optional.of(grid.cell(row - 1, column)) : Optional.empty(); }
+    public Optional<CompactCell> getSouth() { return hasSouth() ? Optional.of(grid.cell(row + 1, column)) : Optional.empty(); }
+    public Optional<CompactCell> getWest() { return hasWest() ? Optional.of(grid.cell(row, column - 1)) : Optional.empty(); }
+    public Optional<CompactCell> getEast() { return hasEast() ? Optional.of(grid.cell(row, column + 1)) : Optional.empty(); }
+
+    public int getRow() { return row; }
+    public int getColumn() { return column; }
+
+    /**
+     * @throws ArithmeticException If the grid has more cells than an {@code int} can hold, when
+     * only the {@link #getIndex() index} can be used
+     */
+    public int getOrdinal() { return Math.toIntExact(getIndex()); }
+
+    /**
+     * The position of the cell in row-major order, for grids of any size.
+     */
+    public long getIndex() { return grid.index(row, column); }
+
+    public String toString() {
+        return String.format("Cell at (%d, %d)", column, row);
+    }
+
+    public boolean equals(Object other) {
+        return other instanceof CompactCell &&
+                this.grid == ((CompactCell) other).grid &&
+                this.row == ((CompactCell) other).row &&
+                this.column == ((CompactCell) other).column;
+    }
+
+    public int hashCode() {
+        return Long.hashCode(getIndex());
+    }
+}
\ No newline at end of file
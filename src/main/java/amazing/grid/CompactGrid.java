@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A maze {@link Grid grid} that stores links as bits rather than as cell objects.
+ *
+ * Each position has an east and a south link bit, indexed by {@code row * columns + column},
+ * and a mask bit that is set when the cell is {@link #remove(CompactCell) removed}. The
+ * {@link CompactCell cells} returned by the grid are created on demand, so the generators,
+ * {@link Distances} and the renderer can all use it unchanged.
+ */
+public class CompactGrid extends Grid<CompactCell> {
+    /** Bit planes for link and mask storage. */
+    protected static final int EAST = 0, SOUTH = 1, MASKED = 2, PLANES = 3;
+
+    protected BitSet[] planes;
+
+    public CompactGrid(int rows, int columns) {
+        super(rows, columns);
+    }
+
+    protected CompactGrid(int rows, int columns, boolean prepare) {
+        super(rows, columns, prepare);
+    }
+
+    @Override
+    protected List<List<CompactCell>> prepare() {
+        allocate();
+
+        grid = new AbstractList<List<CompactCell>>() {
+            @Override
+            public List<CompactCell> get(int row) {
+                if (row < 0 || row >= rows) throw new IndexOutOfBoundsException("Row " + row);
+                return new AbstractList<CompactCell>() {
+                    @Override
+                    public CompactCell get(int column) {
+                        if (column < 0 || column >= columns) throw new IndexOutOfBoundsException("Column " + column);
+                        return cell(row, column);
+                    }
+                    @Override
+                    public int size() { return columns; }
+                };
+            }
+            @Override
+            public int size() { return rows; }
+        };
+        return grid;
+    }
+
+    /**
+     * Allocates the storage for the bit planes.
+     */
+    protected void allocate() {
+        checkSize(rows, columns);
+
+        planes = new BitSet[PLANES];
+        for (int p = 0; p < PLANES; p++) {
+            planes[p] = new BitSet(rows * columns);
+        }
+    }
+
+    /**
+     * Rejects sizes whose cells cannot all be given an {@code int} {@link Cell#getOrdinal() ordinal},
+     * which is the most cells a grid on the heap can hold. A {@link MappedGrid mapped grid} can
+     * hold more, addressed by {@link CompactCell#getIndex() index}.
+     */
+    protected static void checkSize(int rows, int columns) {
+        if ((long) rows * (long) columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Grid with %d rows and %d columns has more than the %d cells a grid can hold",
+                    rows, columns, Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Clears every bit in all of the planes.
+     */
+    protected void clear() {
+        for (BitSet plane : planes) {
+            plane.clear();
+        }
+    }
+
+    protected boolean test(int plane, long index) { return planes[plane].get((int) index); }
+    protected void set(int plane, long index, boolean value) { planes[plane].set((int) index, value); }
+
+    @Override
+    public void reset() {
+        clear();
+        distances = Optional.empty();
+        farthest = null;
+        maximum = 0;
+        braiding = culling = deleted = 0f;
+        metadata.clear();
+        if (journal != null) journal.clear();
+        clearBudget();
+    }
+
+    /**
+     * Cells are created on demand and the bit planes grow as they are used, so only the size changes.
+     */
+    @Override
+    public void resize(int rows, int columns) {
+        checkSize(rows, columns);
+        reset();
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /** Neighbours are implied by position, so there is nothing to configure. */
+    @Override
+    protected void configure() { }
+
+    protected long index(int row, int column) { return (long) row * (long) columns + column; }
+
+    /**
+     * The number of cells in the grid, which unlike {@link #getSize()} may be more than an {@code int} can hold.
+     */
+    public long getCellCount() { return (long) rows * (long) columns; }
+
+    /**
+     * @throws ArithmeticException If the grid has more cells than an {@code int} can hold
+     */
+    @Override
+    public int getSize() { return Math.toIntExact(getCellCount()); }
+
+    protected boolean contains(int row, int column) {
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    CompactCell cell(int row, int column) { return new CompactCell(row, column, this); }
+
+    @Override
+    public Optional<CompactCell> getCell(int row, int column) {
+        if (!contains(row, column)) return Optional.empty();
+        return Optional.of(cell(row, column));
+    }
+
+    @Override
+    public Iterator<CompactCell> iterator() {
+        return new Iterator<CompactCell>() {
+            private int row = 0, column = 0;
+
+            @Override
+            public boolean hasNext() { return row < rows && columns > 0; }
+
+            @Override
+            public CompactCell next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                CompactCell cell = cell(row, column);
+                if (++column == columns) {
+                    column = 0;
+                    row++;
+                }
+                return cell;
+            }
+        };
+    }
+
+    public boolean isMasked(int row, int column) {
+        return contains(row, column) && test(MASKED, index(row, column));
+    }
+
+    public boolean isNeighbour(int row, int column, int other, int otherColumn) {
+        return contains(row, column) && contains(other, otherColumn) &&
+                !isMasked(row, column) && !isMasked(other, otherColumn);
+    }
+
+    public boolean linkedEast(int row, int column) {
+        return contains(row, column) && column < columns - 1 && test(EAST, index(row, column));
+    }
+
+    public boolean linkedSouth(int row, int column) {
+        return contains(row, column) && row < rows - 1 && test(SOUTH, index(row, column));
+    }
+
+    protected int degree(int row, int column) {
+        int degree = 0;
+        if (linkedSouth(row - 1, column)) degree++;
+        if (linkedSouth(row, column)) degree++;
+        if (linkedEast(row, column - 1)) degree++;
+        if (linkedEast(row, column)) degree++;
+        return degree;
+    }
+
+    public boolean linked(CompactCell cell, CompactCell target) {
+        int row = cell.getRow(), column = cell.getColumn();
+        int dr = target.getRow() - row, dc = target.getColumn() - column;
+        if (dr == 0 && dc == 1) return linkedEast(row, column);
+        if (dr == 0 && dc == -1) return linkedEast(row, column - 1);
+        if (dr == 1 && dc == 0) return linkedSouth(row, column);
+        if (dr == -1 && dc == 0) return linkedSouth(row - 1, column);
+        return false;
+    }
+
+    /**
+     * Sets or clears the link bit between two adjacent cells.
+     */
+    public void link(CompactCell cell, CompactCell target, boolean linked) {
+        int row = cell.getRow(), column = cell.getColumn();
+        int dr = target.getRow() - row, dc = target.getColumn() - column;
+        int plane;
+        long index;
+        if (dr == 0 && dc == 1) {
+            plane = EAST;
+            index = index(row, column);
+        } else if (dr == 0 && dc == -1) {
+            plane = EAST;
+            index = index(row, column - 1);
+        } else if (dr == 1 && dc == 0) {
+            plane = SOUTH;
+            index = index(row, column);
+        } else if (dr == -1 && dc == 0) {
+            plane = SOUTH;
+            index = index(row - 1, column);
+        } else {
+            throw new IllegalArgumentException(String.format("%s is not adjacent to %s", target, cell));
+        }
+
+        boolean changed = isObserved() && test(plane, index) != linked;
+        set(plane, index, linked);
+        if (changed) {
+            if (linked) fireLinked(cell, target);
+            else fireUnlinked(cell, target);
+        }
+    }
+
+    /**
+     * Neighbouring cells share words of the bit planes, so links cannot be set from several threads.
+     */
+    @Override
+    public boolean isConcurrent() { return false; }
+
+    /**
+     * Dead ends are found by scanning the link bits rather than kept in an index, so
+     * that heap use does not grow with the grid.
+     */
+    @Override
+    public List<CompactCell> getDeadends() {
+        List<CompactCell> deadends = new ArrayList<>();
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < columns; y++) {
+                if (degree(x, y) == 1)
+                    deadends.add(cell(x, y));
+            }
+        }
+        return deadends;
+    }
+
+    /**
+     * A live view of the dead ends, found by scanning the link bits each time it is read.
+     */
+    @Override
+    public List<CompactCell> getDeadendsView() {
+        return new AbstractList<CompactCell>() {
+            @Override
+            public CompactCell get(int index) {
+                Iterator<CompactCell> deadends = iterator();
+                for (int i = 0; i < index && deadends.hasNext(); i++) deadends.next();
+                if (index < 0 || !deadends.hasNext()) throw new IndexOutOfBoundsException("Dead end " + index);
+                return deadends.next();
+            }
+
+            @Override
+            public int size() { return getDeadendCount(); }
+
+            @Override
+            public Iterator<CompactCell> iterator() {
+                return new Iterator<CompactCell>() {
+                    private long next = find(0L);
+
+                    private long find(long from) {
+                        while (from < getCellCount() && degree((int) (from / columns), (int) (from % columns)) != 1) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() { return next < getCellCount(); }
+
+                    @Override
+                    public CompactCell next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        CompactCell cell = cell((int) (next / columns), (int) (next % columns));
+                        next = find(next + 1);
+                        return cell;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public int getDeadendCount() {
+        int count = 0;
+        for (int x = 0; x < rows; x++) {
+            for (int y = 0; y < columns; y++) {
+                if (degree(x, y) == 1) count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void remove(CompactCell cell) {
+        Set<CompactCell> links = isObserved() ? cell.getLinks() : Set.of();
+        int row = cell.getRow(), column = cell.getColumn();
+        if (row > 0) set(SOUTH, index(row - 1, column), false);
+        if (column > 0) set(EAST, index(row, column - 1), false);
+        set(SOUTH, index(row, column), false);
+        set(EAST, index(row, column), false);
+        set(MASKED, index(row, column), true);
+        for (CompactCell link : links) fireUnlinked(cell, link);
+        fireRemoved(cell);
+    }
+}
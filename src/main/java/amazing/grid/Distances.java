@@ -20,44 +20,73 @@
  */
 package amazing.grid;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public class Distances<C extends Cell<C>> {
+public class Distances<C extends CellView<C>> {
+    /**
+     * Storage for the distance of each cell. Distances are kept in a {@link CellMap} on the heap
+     * unless another plane is given, such as one {@link MappedGrid#distancesFrom(CompactCell) mapped}
+     * from the file of a grid too large for the heap.
+     */
+    public interface Plane<C extends CellView<C>> {
+        boolean containsKey(C cell);
+        int get(C cell);
+        void put(C cell, int value);
+        Set<C> keySet();
+    }
+
     private C root;
     private Optional<C> goal = Optional.empty();
-    private Map<C,Integer> cells;
+    private Plane<C> cells;
+
+    public static <C extends CellView<C>> Distances<C> from(C root) {
+        return from(root, new CellMap<>());
+    }
 
-    public static <C extends Cell<C>> Distances<C> from(C root) {
-        Distances<C> distances = new Distances<>(root);
+    /**
+     * Calculates the distances from the root into an empty plane.
+     */
+    public static <C extends CellView<C>> Distances<C> from(C root, Plane<C> plane) {
+        Distances<C> distances = new Distances<>(root, plane);
+        distances.setDistance(root, 0);
         distances.calculate();
         return distances;
     }
 
-    private Distances(C root) {
+    /**
+     * Wraps a plane that already holds the distances from the root.
+     */
+    static <C extends CellView<C>> Distances<C> of(C root, Plane<C> plane) {
+        return new Distances<>(root, plane);
+    }
+
+    private Distances(C root, Plane<C> plane) {
         this.root = root;
-        this.cells = new HashMap<>();
-        cells.put(root, 0);
+        this.cells = plane;
     }
 
     private void calculate() {
-        Set<C> frontier = new HashSet<>();
+        List<C> frontier = new ArrayList<>();
+        List<C> newFrontier = new ArrayList<>();
         frontier.add(root);
 
         while (!frontier.isEmpty()) {
-            Set<C> newFrontier = new HashSet<>();
             for (C cell : frontier) {
+                int distance = getDistance(cell) + 1;
                 for (C linked : cell.getLinks()) {
                     if (!isSet(linked)) {
-                        setDistance(linked, getDistance(cell) + 1);
+                        setDistance(linked, distance);
                         newFrontier.add(linked);
                     }
                 }
             }
+            List<C> visited = frontier;
             frontier = newFrontier;
+            newFrontier = visited;
+            newFrontier.clear();
         }
     }
 
@@ -73,7 +102,7 @@ public class Distances<C extends Cell<C>> {
         return cells.get(cell);
     }
 
-    public void setDistance(C cell, int distance) {
+    private void setDistance(C cell, int distance) {
         cells.put(cell, distance);
     }
 
@@ -84,7 +113,8 @@ public class Distances<C extends Cell<C>> {
     public Distances<C> to(C cell) {
         goal = Optional.of(cell);
         C current = cell;
-        Distances<C> breadcrumbs = new Distances<>(root);
+        Distances<C> breadcrumbs = new Distances<>(root, new CellMap<>());
+        breadcrumbs.setDistance(root, 0);
         breadcrumbs.setDistance(current, getDistance(current));
 
         do {
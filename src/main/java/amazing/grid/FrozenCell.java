@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A read-only {@link CellView cell} view onto a position in a {@link FrozenGrid frozen grid}.
+ *
+ * Like {@link CompactCell compact cells}, instances are created on demand and hold only
+ * their grid and {@link #getOrdinal() ordinal}, so they are safe to share between threads.
+ * Frozen cells are only {@link CellView views}, so they have no methods to link them.
+ */
+public class FrozenCell implements CellView<FrozenCell> {
+    private final FrozenGrid grid;
+    private final int ordinal;
+
+    FrozenCell(int ordinal, FrozenGrid grid) {
+        this.ordinal = ordinal;
+        this.grid = grid;
+    }
+
+    public FrozenGrid getGrid() { return grid; }
+
+    public Set<FrozenCell> getLinks() {
+        Set<FrozenCell> links = new LinkedHashSet<>();
+        for (int d = 0; d < FrozenGrid.DIRECTIONS; d++) {
+            if (grid.linkedOver(ordinal, d)) links.add(grid.over(ordinal, d));
+            if (grid.linkedUnder(ordinal, d)) links.add(grid.under(ordinal, d));
+        }
+        return links;
+    }
+    public boolean hasLinks() { return grid.hasLinks(ordinal); }
+
+    public boolean linked(FrozenCell target) { return grid.linked(ordinal, target.ordinal); }
+    public boolean linked(Optional<FrozenCell> target) { return target.isEmpty() ? false : linked(target.get()); }
+
+    /**
+     * The neighbours are the adjacent cells only, since a frozen grid cannot be tunnelled.
+     */
+    public Set<FrozenCell> getNeighbours() {
+        Set<FrozenCell> neighbours = new LinkedHashSet<>();
+        for (int d = 0; d < FrozenGrid.DIRECTIONS; d++) {
+            if (grid.hasNeighbour(ordinal, d)) neighbours.add(grid.neighbour(ordinal, d));
+        }
+        return neighbours;
+    }
+    public boolean hasNeighbours() { return grid.hasNeighbours(ordinal); }
+
+    public void getNeighbours(Neighbours<FrozenCell> neighbours) {
+        neighbours.clear();
+        for (int d = 0; d < FrozenGrid.DIRECTIONS; d++) {
+            if (grid.hasNeighbour(ordinal, d)) neighbours.add(grid.neighbour(ordinal, d));
+        }
+    }
+
+    public boolean hasNorth() { return grid.hasNeighbour(ordinal, FrozenGrid.NORTH); }
+    public boolean hasSouth() { return grid.hasNeighbour(ordinal, FrozenGrid.SOUTH); }
+    public boolean hasWest() { return grid.hasNeighbour(ordinal, FrozenGrid.WEST); }
+    public boolean hasEast() { return grid.hasNeighbour(ordinal, FrozenGrid.EAST); }
+
+    public Optional<FrozenCell> getNorth() { return get(FrozenGrid.NORTH); }
+    public Optional<FrozenCell> getSouth() { return get(FrozenGrid.SOUTH); }
+    public Optional<FrozenCell> getWest() { return get(FrozenGrid.WEST); }
+    public Optional<FrozenCell> getEast() { return get(FrozenGrid.EAST); }
+
+    private Optional<FrozenCell> get(int direction) {
+        return grid.hasNeighbour(ordinal, direction) ? Optional.of(grid.neighbour(ordinal, direction)) : Optional.empty();
+    }
+
+    public int getRow() { return (ordinal % grid.getSize()) / grid.getColumns(); }
+    public int getColumn() { return ordinal % grid.getColumns(); }
+    public int getOrdinal() { return ordinal; }
+
+    public String toString() {
+        return String.format("Cell at (%d, %d)", getColumn(), getRow());
+    }
+
+    public boolean equals(Object other) {
+        return other instanceof FrozenCell &&
+                this.grid == ((FrozenCell) other).grid &&
+                this.ordinal == ((FrozenCell) other).ordinal;
+    }
+
+    public int hashCode() {
+        return ordinal;
+    }
+}
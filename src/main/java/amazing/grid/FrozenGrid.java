@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * An immutable snapshot of a built maze {@link Grid grid}, created by {@link Grid#freeze()}.
+ *
+ * The links of each cell are packed into an {@code int} per {@link Cell#getOrdinal() ordinal},
+ * with bits for each direction recording whether there is a neighbour, whether it is an
+ * {@link UnderCell under-cell}, and whether the cell is linked to the over-cell or the
+ * under-cell at the adjacent position. A cell can be linked to a cell that is no longer its
+ * neighbour once a tunnel has been dug beside it, so links are kept apart from neighbours. Distances are kept in a
+ * {@link CellMap} and the metadata in an unmodifiable copy. The grid is only a {@link GridView view}, with
+ * no methods that change it, and nothing is written after the constructor, so once handed to another thread,
+ * for example through a {@link java.util.concurrent.Future}, the snapshot can be read by any number of threads
+ * without locking, while the original grid is {@link Grid#reset() reset} and reused.
+ */
+public class FrozenGrid implements GridView<FrozenCell> {
+    /** Directions, in the order used by {@link Cell#getNeighbours()}. */
+    static final int NORTH = 0, SOUTH = 1, WEST = 2, EAST = 3, DIRECTIONS = 4;
+
+    /** Bit fields for each cell, shifted by the direction. */
+    private static final int HAS = 0, UNDER = 4, LINKED_OVER = 8, LINKED_UNDER = 12, LINKS = 0xff << LINKED_OVER, EXISTS = 1 << 16;
+
+    private final int rows, columns, size, capacity;
+    private final int[] cells;
+    private final CellMap<FrozenCell> distance;
+    private final FrozenCell root, farthest;
+    private final int maximum;
+    private final float braiding, culling, deleted;
+    private final Map<String,Object> metadata;
+    private final List<FrozenCell> deadends;
+
+    <C extends Cell<C>> FrozenGrid(Grid<C> source) {
+        this.rows = source.getRows();
+        this.columns = source.getColumns();
+        this.size = source.getSize();
+        this.capacity = source.getCapacity();
+        this.cells = new int[capacity];
+        this.distance = new CellMap<>(capacity);
+
+        for (C cell : source) {
+            int ordinal = cell.getOrdinal();
+            int bits = EXISTS;
+            bits |= pack(cell.getNorth(), NORTH);
+            bits |= pack(cell.getSouth(), SOUTH);
+            bits |= pack(cell.getWest(), WEST);
+            bits |= pack(cell.getEast(), EAST);
+            for (C link : cell.getLinks()) {
+                bits |= 1 << ((link.getOrdinal() >= size ? LINKED_UNDER : LINKED_OVER) + direction(cell, link));
+            }
+            cells[ordinal] = bits;
+            Optional<Integer> contents = source.getContents(cell);
+            if (contents.isPresent()) distance.put(new FrozenCell(ordinal, this), contents.get());
+        }
+
+        this.root = source.getDistances().map(d -> new FrozenCell(d.getRoot().getOrdinal(), this)).orElse(null);
+        this.farthest = source.getFarthest() == null ? null : new FrozenCell(source.getFarthest().getOrdinal(), this);
+        this.maximum = source.getMaximum();
+        this.braiding = source.getBraiding();
+        this.culling = source.getCulling();
+        this.deleted = source.getDeleted();
+        this.metadata = Collections.unmodifiableMap(new HashMap<>(source.metadata));
+
+        List<FrozenCell> deadends = new ArrayList<>();
+        for (int ordinal = 0; ordinal < capacity; ordinal++) {
+            if (Integer.bitCount(cells[ordinal] & LINKS) == 1) deadends.add(new FrozenCell(ordinal, this));
+        }
+        this.deadends = Collections.unmodifiableList(deadends);
+    }
+
+    private <C extends Cell<C>> int pack(Optional<C> neighbour, int direction) {
+        if (neighbour.isEmpty()) return 0;
+        int bits = 1 << (HAS + direction);
+        if (neighbour.get().getOrdinal() >= size) bits |= 1 << (UNDER + direction);
+        return bits;
+    }
+
+    private static <C extends Cell<C>> int direction(C cell, C link) {
+        int dr = link.getRow() - cell.getRow(), dc = link.getColumn() - cell.getColumn();
+        if (dr == -1 && dc == 0) return NORTH;
+        if (dr == 1 && dc == 0) return SOUTH;
+        if (dr == 0 && dc == -1) return WEST;
+        if (dr == 0 && dc == 1) return EAST;
+        throw new IllegalArgumentException(String.format("%s is not adjacent to %s", link, cell));
+    }
+
+    private int position(int ordinal, int direction) {
+        int position = ordinal % size;
+        switch (direction) {
+            case NORTH: return position - columns;
+            case SOUTH: return position + columns;
+            case WEST:  return position - 1;
+            default:    return position + 1;
+        }
+    }
+
+    boolean exists(int ordinal) { return (cells[ordinal] & EXISTS) != 0; }
+    boolean hasNeighbour(int ordinal, int direction) { return (cells[ordinal] & (1 << (HAS + direction))) != 0; }
+    boolean hasNeighbours(int ordinal) { return ((cells[ordinal] >> HAS) & 0xf) != 0; }
+    boolean linkedOver(int ordinal, int direction) { return (cells[ordinal] & (1 << (LINKED_OVER + direction))) != 0; }
+    boolean linkedUnder(int ordinal, int direction) { return (cells[ordinal] & (1 << (LINKED_UNDER + direction))) != 0; }
+    boolean hasLinks(int ordinal) { return (cells[ordinal] & LINKS) != 0; }
+
+    boolean linked(int ordinal, int target) {
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int position = position(ordinal, d);
+            if (linkedOver(ordinal, d) && target == position) return true;
+            if (linkedUnder(ordinal, d) && target == size + position) return true;
+        }
+        return false;
+    }
+
+    FrozenCell over(int ordinal, int direction) { return new FrozenCell(position(ordinal, direction), this); }
+    FrozenCell under(int ordinal, int direction) { return new FrozenCell(size + position(ordinal, direction), this); }
+
+    int neighbourOrdinal(int ordinal, int direction) {
+        if (!hasNeighbour(ordinal, direction)) return -1;
+        int position = position(ordinal, direction);
+        return (cells[ordinal] & (1 << (UNDER + direction))) != 0 ? size + position : position;
+    }
+
+    FrozenCell neighbour(int ordinal, int direction) { return new FrozenCell(neighbourOrdinal(ordinal, direction), this); }
+
+    /**
+     * Returns the distance recorded for the cell when the grid was frozen, or {@code -1}.
+     */
+    public int getDistance(FrozenCell cell) { return distance.get(cell, -1); }
+
+    @Override
+    public Optional<Integer> getContents(FrozenCell cell) {
+        return distance.containsKey(cell) ? Optional.of(distance.get(cell)) : Optional.empty();
+    }
+
+    /**
+     * Returns the distances recorded when the grid was frozen. Each call wraps the same frozen
+     * values, so the {@link Distances#getGoal() goal} set by one caller is not seen by another.
+     */
+    @Override
+    public Optional<Distances<FrozenCell>> getDistances() {
+        return root == null ? Optional.empty() : Optional.of(Distances.of(root, distance));
+    }
+
+    @Override
+    public Optional<FrozenCell> getCell(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) return Optional.empty();
+        return Optional.of(new FrozenCell(row * columns + column, this));
+    }
+
+    /**
+     * Iterates over the over-cells row by row and then over any under-cells.
+     */
+    @Override
+    public Iterator<FrozenCell> iterator() {
+        return new Iterator<FrozenCell>() {
+            private int ordinal = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (ordinal < capacity && !exists(ordinal)) ordinal++;
+                return ordinal < capacity;
+            }
+
+            @Override
+            public FrozenCell next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return new FrozenCell(ordinal++, FrozenGrid.this);
+            }
+        };
+    }
+
+    @Override
+    public FrozenGrid freeze() { return this; }
+
+    @Override
+    public int getRows() { return rows; }
+    @Override
+    public int getColumns() { return columns; }
+    @Override
+    public int getSize() { return size; }
+    @Override
+    public int getCapacity() { return capacity; }
+
+    @Override
+    public int getMaximum() { return maximum; }
+    @Override
+    public FrozenCell getFarthest() { return farthest; }
+
+    /**
+     * The dead ends never change, so the copy and the view are the same list.
+     */
+    @Override
+    public List<FrozenCell> getDeadends() { return deadends; }
+    @Override
+    public List<FrozenCell> getDeadendsView() { return deadends; }
+    @Override
+    public int getDeadendCount() { return deadends.size(); }
+
+    @Override
+    public float getBraiding() { return braiding; }
+    @Override
+    public float getCulling() { return culling; }
+    @Override
+    public float getDeleted() { return deleted; }
+
+    @Override
+    public boolean hasMetadata(String key) { return metadata.containsKey(key); }
+    @Override
+    public Optional<Object> getMetadata(String key) { return Optional.ofNullable(metadata.get(key)); }
+    @Override
+    public String getMetadataString(String key) { return (String) getMetadata(key).orElse(""); }
+    @Override
+    public Integer getMetadataInteger(String key) { return (Integer) getMetadata(key).orElse(0); }
+    @Override
+    public Float getMetadataFloat(String key) { return (Float) getMetadata(key).orElse(0f); }
+
+    @Override
+    public String toString() {
+        return String.format("A %smaze with %d rows and %d columns", hasMetadata(Grid.BRAIDED) ? "braided " : "", rows, columns);
+    }
+}
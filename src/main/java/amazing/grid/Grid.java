@@ -22,18 +22,24 @@ package amazing.grid;
 
 import static amazing.Utils.sample;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
-public class Grid<C extends Cell<C>> implements Iterable<C> {
+public class Grid<C extends Cell<C>> implements GridView<C> {
     public static final String LOOPED = "LOOPED";
     public static final String BRAIDED = "BRAIDED";
     public static final String CULLED = "CULLED";
@@ -43,54 +49,183 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
     /** Keys for {@link #getMetadata(String)} storage. */
     public static final Set<String> METADATA_KEYS = Set.of(LOOPED, BRAIDED, CULLED, DELETED, GENERATOR);
 
+    /** Steps between checks in {@link #checkpoint(long)}. */
+    public static final int CHECKPOINT_INTERVAL = 1024;
+
     protected static final Random RANDOM = new Random();
 
     protected int rows, columns;
     protected List<List<C>> grid;
+    protected List<C> spares = new ArrayList<>();
     protected Optional<Distances<C>> distances = Optional.empty();
     protected C farthest;
     protected int maximum;
     protected float braiding = 0f, culling = 0f, deleted = 0f;
     protected Map<String,Object> metadata = new HashMap<>();
+    protected List<C> deadends = new ArrayList<>();
+    protected int[] deadendSlots = new int[0];
+    protected Journal journal;
+    protected List<GridListener<C>> listeners;
+    protected Grid<?> shared;
+    protected volatile Thread owner;
+    protected volatile long deadline;
+    protected volatile boolean timed, cancelled;
+    protected boolean suspended;
 
     public Grid(int rows, int columns) {
+        this(rows, columns, true);
+    }
+
+    /**
+     * Creates a grid, optionally leaving the subclass to {@link #prepare()} and
+     * {@link #configure()} it once its own fields have been set.
+     */
+    protected Grid(int rows, int columns, boolean prepare) {
         this.rows = rows;
         this.columns = columns;
-        this.grid = prepare();
-        configure();
+        if (prepare) {
+            this.grid = prepare();
+            configure();
+        }
     }
 
-    @SuppressWarnings("unchecked")
     protected List<List<C>> prepare() {
         grid = new ArrayList<>();
         for (int x = 0; x < rows; x++) {
             List<C> row = new ArrayList<>();
             for (int y = 0; y < columns; y++) {
-                row.add((C) new BasicCell<>(x, y));
+                row.add(create(x, y));
             }
             grid.add(row);
         }
         return grid;
     }
 
+    /**
+     * Creates the cell for a position when the grid is {@link #prepare() prepared} or grows.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected C create(int row, int column) {
+        return (C) new BasicCell(row, column, row * columns + column, this);
+    }
+
+    /**
+     * Points each cell at its neighbours. This and {@link #remove(Cell)} need {@link Cell.Wired wired}
+     * cells, so grids whose neighbours follow from the position of a cell override both.
+     */
     protected void configure() {
         for (C cell : this) {
             int row = cell.getRow();
             int column = cell.getColumn();
-            cell.setNorth(getCell(row - 1, column));
-            cell.setSouth(getCell(row + 1, column));
-            cell.setWest(getCell(row, column - 1));
-            cell.setEast(getCell(row, column + 1));
+            Cell.Wired<C> wired = wired(cell);
+            wired.setNorth(getCell(row - 1, column));
+            wired.setSouth(getCell(row + 1, column));
+            wired.setWest(getCell(row, column - 1));
+            wired.setEast(getCell(row, column + 1));
         }
     }
 
-    @Override
-    public Iterator<C> iterator() {
-        List<C> cells = new ArrayList<>();
+    @SuppressWarnings("unchecked")
+    private Cell.Wired<C> wired(C cell) { return (Cell.Wired<C>) cell; }
+
+    /**
+     * Clears all links, metadata and distances and restores the neighbours of removed cells,
+     * so the grid can be reused without allocating new cells. Listeners are kept, and the
+     * journal, if started, is cleared.
+     */
+    public void reset() {
+        for (C cell : this) {
+            cell.getLinks().clear();
+        }
+        configure();
+
+        deadends.clear();
+        Arrays.fill(deadendSlots, 0);
+        distances = Optional.empty();
+        farthest = null;
+        maximum = 0;
+        braiding = culling = deleted = 0f;
+        metadata.clear();
+        if (journal != null) journal.clear();
+        clearBudget();
+    }
+
+    /**
+     * Resets the grid and changes its size, moving its cells to the new positions in row-major
+     * order, so only cells beyond the most the grid has held are allocated. Cells left over when
+     * the grid shrinks are kept for when it grows again.
+     */
+    public void resize(int rows, int columns) {
+        if (rows == this.rows && columns == this.columns) {
+            reset();
+            return;
+        }
+
+        List<C> cells = new ArrayList<>(getSize() + spares.size());
+        for (List<C> row : grid) {
+            for (C cell : row) {
+                cell.getLinks().clear();
+                cells.add(cell);
+            }
+        }
+        cells.addAll(spares);
+
+        this.rows = rows;
+        this.columns = columns;
+        grid = new ArrayList<>(rows);
         for (int x = 0; x < rows; x++) {
-            cells.addAll(grid.get(x));
+            List<C> row = new ArrayList<>(columns);
+            for (int y = 0; y < columns; y++) {
+                int ordinal = x * columns + y;
+                if (ordinal < cells.size()) {
+                    C cell = cells.get(ordinal);
+                    ((BasicCell<?>) cell).place(x, y, ordinal);
+                    row.add(cell);
+                } else {
+                    row.add(create(x, y));
+                }
+            }
+            grid.add(row);
         }
-        return cells.iterator();
+        spares = new ArrayList<>(cells.subList(Math.min(getSize(), cells.size()), cells.size()));
+        reset();
+    }
+
+    /**
+     * Returns an immutable snapshot of the grid that can be shared between threads.
+     */
+    public FrozenGrid freeze() { return new FrozenGrid(this); }
+
+    /**
+     * Returns a view of the rectangle with {@code rows} rows and {@code columns} columns whose
+     * top left cell is at {@code (column, row)}, sharing the cells of this grid.
+     */
+    public SubGrid<C> subGrid(int row, int column, int rows, int columns) {
+        return new SubGrid<>(this, row, column, rows, columns);
+    }
+
+    /**
+     * Iterates over the cells in place, row by row, without copying the grid.
+     */
+    @Override
+    public Iterator<C> iterator() {
+        return new Iterator<C>() {
+            private int row = 0, column = 0;
+
+            @Override
+            public boolean hasNext() { return row < rows && columns > 0; }
+
+            @Override
+            public C next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                C cell = grid.get(row).get(column);
+                if (++column == columns) {
+                    column = 0;
+                    row++;
+                }
+                return cell;
+            }
+        };
     }
 
     public void setDistances(Distances<C> distances) {
@@ -104,12 +239,14 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
 
     public List<List<C>> getGrid() { return grid; }
 
+    @SuppressWarnings("unchecked")
     public Optional<C> getCell(int row, int column) {
         if (row < 0 || row >= rows)
             return Optional.empty();
         if (column < 0 || column >= columns)
             return Optional.empty();
-        return Optional.of(grid.get(row).get(column));
+        C cell = grid.get(row).get(column);
+        return cell instanceof BasicCell ? (Optional<C>) ((BasicCell<?>) cell).self : Optional.of(cell);
     }
 
     public Optional<Integer> getContents(C cell) {
@@ -125,13 +262,186 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
         return getCell(row, column).get();
     }
 
+    /**
+     * Returns a copy of the dead ends, from the index kept up to date as cells are linked.
+     */
     public List<C> getDeadends() {
-        List<C> deadends = new ArrayList<>();
-        for (C cell : this) {
-            if (cell.getLinks().size() == 1)
-                deadends.add(cell);
+        return new ArrayList<>(deadends);
+    }
+
+    /**
+     * Returns a read-only live view of the dead end index.
+     */
+    public List<C> getDeadendsView() { return Collections.unmodifiableList(deadends); }
+
+    public int getDeadendCount() { return deadends.size(); }
+
+    /**
+     * Called by a {@link Cell cell} when its number of links changes, to maintain the dead end index.
+     */
+    protected void degreeChanged(C cell, int degree) {
+        if (suspended) return;
+        int ordinal = cell.getOrdinal();
+        int slot = ordinal < deadendSlots.length ? deadendSlots[ordinal] - 1 : -1;
+        if (degree == 1 && slot < 0) {
+            if (ordinal >= deadendSlots.length) {
+                deadendSlots = Arrays.copyOf(deadendSlots, Math.max(ordinal + 1, Math.max(getCapacity(), 2 * deadendSlots.length)));
+            }
+            deadends.add(cell);
+            deadendSlots[ordinal] = deadends.size();
+        } else if (degree != 1 && slot >= 0) {
+            C last = deadends.remove(deadends.size() - 1);
+            if (last.getOrdinal() != ordinal) {
+                deadends.set(slot, last);
+                deadendSlots[last.getOrdinal()] = slot + 1;
+            }
+            deadendSlots[ordinal] = 0;
+        }
+    }
+
+    /**
+     * Starts a build on the current thread. The build is abandoned at the next
+     * {@link #checkpoint() checkpoint} once the thread is interrupted, the grid is
+     * {@link #cancel() cancelled}, or the budget has run out, unless it is {@code null}.
+     */
+    public void setBudget(Duration budget) {
+        if (shared != null) {
+            shared.setBudget(budget);
+            return;
+        }
+        owner = Thread.currentThread();
+        timed = budget != null;
+        if (timed) deadline = System.nanoTime() + budget.toNanos();
+    }
+
+    /**
+     * Makes the build on this grid part of the build on another, such as the grid a scratch
+     * grid is copied into, so that it shares the budget and is cancelled along with it.
+     */
+    public void shareBudget(Grid<?> other) { this.shared = other; }
+
+    protected void clearBudget() {
+        shared = null;
+        owner = null;
+        timed = cancelled = false;
+    }
+
+    /**
+     * Asks the build on this grid to stop at its next checkpoint.
+     */
+    public void cancel() {
+        if (shared != null) shared.cancel();
+        else cancelled = true;
+    }
+
+    public boolean isCancelled() { return shared != null ? shared.isCancelled() : cancelled; }
+
+    /**
+     * Throws a {@link CancellationException} if the build has been abandoned. This can be
+     * called from any thread, such as the workers of a parallel generator, since it checks
+     * the thread that {@link #setBudget(Duration) started} the build, or the current thread
+     * if no build was started.
+     */
+    public void checkpoint() {
+        if (shared != null) {
+            shared.checkpoint();
+            return;
+        }
+        if (cancelled) throw new CancellationException("Build cancelled");
+        Thread thread = owner == null ? Thread.currentThread() : owner;
+        if (thread.isInterrupted()) {
+            cancelled = true;
+            throw new CancellationException("Build interrupted");
+        }
+        if (timed && System.nanoTime() - deadline > 0) {
+            cancelled = true;
+            throw new CancellationException("Build ran out of time");
+        }
+    }
+
+    /**
+     * Calls {@link #checkpoint()} once every {@link #CHECKPOINT_INTERVAL} steps of a loop.
+     */
+    public void checkpoint(long step) {
+        if (step % CHECKPOINT_INTERVAL == 0) checkpoint();
+    }
+
+    /**
+     * Starts recording changes to the grid, returning the existing journal if already started.
+     */
+    public Journal startJournal() {
+        if (journal == null) journal = new Journal();
+        return journal;
+    }
+
+    public void stopJournal() { journal = null; }
+    public Optional<Journal> getJournal() { return Optional.ofNullable(journal); }
+
+    public void addListener(GridListener<C> listener) {
+        if (listeners == null) listeners = new ArrayList<>();
+        listeners.add(listener);
+    }
+
+    public void removeListener(GridListener<C> listener) {
+        if (listeners == null) return;
+        listeners.remove(listener);
+        if (listeners.isEmpty()) listeners = null;
+    }
+
+    /**
+     * Whether there is a journal or any listeners, so changes need to be reported.
+     */
+    protected boolean isObserved() { return journal != null || listeners != null; }
+
+    /**
+     * Whether {@link #concurrently(int, IntConsumer)} can run its tasks in parallel. Changes must
+     * be reported in order, so a grid that is {@link #isObserved() observed} cannot.
+     */
+    public boolean isConcurrent() { return !isObserved(); }
+
+    /**
+     * Runs the tasks in parallel on the fork-join pool, if the grid {@link #isConcurrent() allows}
+     * it, or one after another otherwise. Each task must only link cells that no other task links,
+     * such as the cells in one band of rows or one {@link #subGrid(int, int, int, int) window}. The
+     * dead end index is not kept while the tasks run, and is rebuilt once they have finished.
+     */
+    public void concurrently(int tasks, IntConsumer task) {
+        if (!isConcurrent()) {
+            IntStream.range(0, tasks).forEach(task);
+            return;
+        }
+        suspended = true;
+        try {
+            IntStream.range(0, tasks).parallel().forEach(task);
+        } finally {
+            suspended = false;
+            deadends.clear();
+            Arrays.fill(deadendSlots, 0);
+            for (C cell : this) {
+                if (cell.getLinks().size() == 1) degreeChanged(cell, 1);
+            }
+        }
+    }
+
+    protected void fireLinked(C cell, C target) {
+        if (journal != null) journal.append(Journal.LINK, cell.getOrdinal(), target.getOrdinal());
+        if (listeners != null) {
+            for (GridListener<C> listener : listeners) listener.linked(cell, target);
+        }
+    }
+
+    protected void fireUnlinked(C cell, C target) {
+        if (journal != null) journal.append(Journal.UNLINK, cell.getOrdinal(), target.getOrdinal());
+        if (listeners != null) {
+            for (GridListener<C> listener : listeners) listener.unlinked(cell, target);
+        }
+    }
+
+    protected void fireRemoved(C cell) {
+        if (journal != null) journal.append(Journal.REMOVE, cell.getOrdinal(), -1);
+        if (listeners != null) {
+            for (GridListener<C> listener : listeners) listener.removed(cell);
         }
-        return deadends;
     }
 
     public float getBraiding() { return braiding; }
@@ -151,44 +461,51 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
     public void braid(float p) {
         this.braiding = p;
         List<C> deadends = getDeadends();
-        while (!deadends.isEmpty()) {
+        Neighbours<C> all = new Neighbours<>(), neighbours = new Neighbours<>(), best = new Neighbours<>();
+        for (long step = 0; !deadends.isEmpty(); step++) {
+            checkpoint(step);
             C cell = deadends.remove(RANDOM.nextInt(deadends.size()));
             if (cell.getLinks().size() == 1 && RANDOM.nextFloat() <= p) {
-                List<C> neighbours = cell.getNeighbours().stream()
-                        .filter(n -> !cell.linked(n))
-                        .collect(Collectors.toList());
-                List<C> best = neighbours.stream()
-                        .filter(n -> n.getLinks().size() == 1)
-                        .collect(Collectors.toList());
-                if (best.isEmpty()) best = neighbours;
-                if (best.isEmpty()) continue;
-                C neighbour = sample(best);
+                cell.getNeighbours(all);
+                neighbours.clear();
+                best.clear();
+                for (int i = 0; i < all.size(); i++) {
+                    C n = all.get(i);
+                    if (!cell.linked(n)) {
+                        neighbours.add(n);
+                        if (n.getLinks().size() == 1) best.add(n);
+                    }
+                }
+                Neighbours<C> choices = best.isEmpty() ? neighbours : best;
+                if (choices.isEmpty()) continue;
+                C neighbour = sample(choices);
                 cell.link(neighbour, true);
             }
         }
     }
 
     public void remove(C cell) {
-        if (cell.hasLinks()) {
-            for (C linked : cell.getLinks()) {
-                cell.unlink(linked, true);
-            }
+        while (cell.hasLinks()) {
+            cell.unlink(cell.getLinks().iterator().next(), true);
         }
 
-        cell.getNorth().ifPresent(n -> n.setSouth(Optional.empty()));
-        cell.getSouth().ifPresent(n -> n.setNorth(Optional.empty()));
-        cell.getWest().ifPresent(n -> n.setEast(Optional.empty()));
-        cell.getEast().ifPresent(n -> n.setWest(Optional.empty()));
-        cell.setNorth(Optional.empty());
-        cell.setSouth(Optional.empty());
-        cell.setWest(Optional.empty());
-        cell.setEast(Optional.empty());
+        cell.getNorth().ifPresent(n -> wired(n).setSouth(Optional.empty()));
+        cell.getSouth().ifPresent(n -> wired(n).setNorth(Optional.empty()));
+        cell.getWest().ifPresent(n -> wired(n).setEast(Optional.empty()));
+        cell.getEast().ifPresent(n -> wired(n).setWest(Optional.empty()));
+        Cell.Wired<C> wired = wired(cell);
+        wired.setNorth(Optional.empty());
+        wired.setSouth(Optional.empty());
+        wired.setWest(Optional.empty());
+        wired.setEast(Optional.empty());
+        fireRemoved(cell);
     }
 
     public void cull(float p) {
         this.culling = p;
         List<C> deadends = getDeadends();
-        while (!deadends.isEmpty()) {
+        for (long step = 0; !deadends.isEmpty(); step++) {
+            checkpoint(step);
             C cell = deadends.remove(RANDOM.nextInt(deadends.size()));
             if (cell.getLinks().size() == 1 && RANDOM.nextFloat() <= p) {
                 remove(cell);
@@ -198,7 +515,9 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
 
     public void delete(float p) {
         this.deleted = p;
+        long step = 0;
         for (C cell : this) {
+            checkpoint(step++);
             if (RANDOM.nextFloat() <= p) {
                 remove(cell);
             }
@@ -209,6 +528,11 @@ public class Grid<C extends Cell<C>> implements Iterable<C> {
     public int getColumns() { return columns; }
     public int getSize() { return rows * columns; }
 
+    /**
+     * The number of {@link Cell#getOrdinal() ordinals} available to cells in this grid.
+     */
+    public int getCapacity() { return getSize(); }
+
     @Override
     public String toString() {
         return String.format("A %smaze with %d rows and %d columns", hasMetadata(BRAIDED) ? "braided " : "", rows, columns);
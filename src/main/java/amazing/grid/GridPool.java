@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * A small pool of {@link Grid grids}, so that repeated builds can {@link Grid#resize(int, int) resize}
+ * and reuse a grid rather than allocating all of its cells again.
+ *
+ * Any free grid can be reused for any size, since resizing only allocates the cells beyond the
+ * most the grid has held. The smallest free grid with at least as many cells as requested is
+ * taken, or if there is none the largest, so callers that choose a new size every time, such as
+ * the viewer, soon stop allocating cells at all.
+ */
+public class GridPool<G extends Grid<?>> {
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private final BiFunction<Integer, Integer, G> factory;
+    private final List<G> free = new ArrayList<>();
+    private final int capacity;
+
+    public GridPool(BiFunction<Integer, Integer, G> factory) {
+        this(factory, DEFAULT_CAPACITY);
+    }
+
+    public GridPool(BiFunction<Integer, Integer, G> factory, int capacity) {
+        this.factory = Objects.requireNonNull(factory);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns a reset grid of the given size from the pool, or a new one if none is free.
+     */
+    public G acquire(int rows, int columns) {
+        G grid;
+        synchronized (this) {
+            grid = take((long) rows * (long) columns);
+        }
+        if (grid == null) return factory.apply(rows, columns);
+        grid.resize(rows, columns);
+        return grid;
+    }
+
+    /**
+     * Removes the best free grid for the number of cells from the pool.
+     */
+    private G take(long cells) {
+        int best = -1;
+        for (int i = 0; i < free.size(); i++) {
+            long size = free.get(i).getSize();
+            if (best < 0) {
+                best = i;
+                continue;
+            }
+            long current = free.get(best).getSize();
+            boolean fits = size >= cells, fitted = current >= cells;
+            if (fits ? !fitted || size < current : !fitted && size > current) best = i;
+        }
+        return best < 0 ? null : free.remove(best);
+    }
+
+    /**
+     * Returns a grid to the pool once it is no longer used, dropping the smallest grid if the pool is full.
+     */
+    public synchronized void release(G grid) {
+        free.add(grid);
+        if (free.size() > capacity) {
+            int smallest = 0;
+            for (int i = 1; i < free.size(); i++) {
+                if (free.get(i).getSize() < free.get(smallest).getSize()) smallest = i;
+            }
+            free.remove(smallest);
+        }
+    }
+
+    public synchronized int size() { return free.size(); }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The read-only part of a maze {@link Grid grid}, enough to render it or describe it.
+ *
+ * Mutable grids implement this along with their changes, and a {@link FrozenGrid frozen grid}
+ * implements only this, so a snapshot has no methods that could change it.
+ */
+public interface GridView<C extends CellView<C>> extends Iterable<C> {
+
+    int getRows();
+    int getColumns();
+    int getSize();
+
+    /**
+     * The number of {@link CellView#getOrdinal() ordinals} available to cells in this grid.
+     */
+    int getCapacity();
+
+    Optional<C> getCell(int row, int column);
+
+    Optional<Distances<C>> getDistances();
+    Optional<Integer> getContents(C cell);
+    int getMaximum();
+    C getFarthest();
+
+    List<C> getDeadends();
+    List<C> getDeadendsView();
+    int getDeadendCount();
+
+    float getBraiding();
+    float getCulling();
+    float getDeleted();
+
+    boolean hasMetadata(String key);
+    Optional<Object> getMetadata(String key);
+    String getMetadataString(String key);
+    Integer getMetadataInteger(String key);
+    Float getMetadataFloat(String key);
+
+    /**
+     * Returns an immutable snapshot of the grid that can be shared between threads.
+     */
+    FrozenGrid freeze();
+}
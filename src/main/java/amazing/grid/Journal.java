@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.Arrays;
+
+/**
+ * An append-only record of the changes made to a {@link Grid grid}.
+ *
+ * Each event is stored as three ints, the type and the {@link Cell#getOrdinal() ordinals}
+ * of the cell and its target, so recording does not allocate per event. Consumers keep the
+ * {@link #size()} they last read up to and process only the events after it.
+ *
+ * @see Grid#startJournal()
+ */
+public class Journal {
+    /** Event types. */
+    public static final int LINK = 0, UNLINK = 1, REMOVE = 2;
+
+    private static final int STRIDE = 3;
+
+    private int[] events = new int[STRIDE * 64];
+    private int size;
+
+    public void append(int type, int cell, int target) {
+        int offset = size * STRIDE;
+        if (offset + STRIDE > events.length) {
+            events = Arrays.copyOf(events, 2 * events.length);
+        }
+        events[offset] = type;
+        events[offset + 1] = cell;
+        events[offset + 2] = target;
+        size++;
+    }
+
+    public int getType(int index) { return events[check(index) * STRIDE]; }
+    public int getCell(int index) { return events[check(index) * STRIDE + 1]; }
+
+    /**
+     * Returns the ordinal of the other cell, or {@code -1} for a {@link #REMOVE} event.
+     */
+    public int getTarget(int index) { return events[check(index) * STRIDE + 2]; }
+
+    private int check(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index);
+        return index;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() { size = 0; }
+}
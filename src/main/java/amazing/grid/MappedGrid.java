@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link CompactGrid compact grid} whose link bits live in a memory mapped file.
+ *
+ * The file has a {@link #HEADER} with the {@link #MAGIC} number, the grid size and cell count,
+ * and the root, farthest cell and maximum of any stored distances, followed by one nibble per cell in
+ * row-major order holding the east, south and mask bits, so a row and its neighbours are
+ * always on adjacent pages. Distances calculated with {@link #distancesFrom(CompactCell)}
+ * are kept in a plane of one {@code int} per cell after the link bits, so the search pages
+ * through the file rather than filling the heap. The data is mapped in {@link #CHUNK} sized
+ * buffers, since one buffer cannot map more than 2 GiB. Cells are addressed by their
+ * {@code long} {@link CompactCell#getIndex() index}, so the grid can have more cells than an
+ * {@code int} can count, such as 50,000 rows by 50,000 columns. Only generators that do not
+ * keep arrays by {@link Cell#getOrdinal() ordinal}, such as {@link amazing.generator.Ellers Ellers},
+ * can carve a grid that large.
+ *
+ * Use {@link #create(Path, int, int)} for a new grid and {@link #open(Path)} to reopen
+ * an existing one.
+ */
+public class MappedGrid extends CompactGrid implements Closeable {
+    public static final long MAGIC = 0x414d415a494e4702L;
+    public static final int HEADER = 64;
+    public static final int CHUNK = 1 << 30;
+
+    /** Offsets of the header fields after the magic number. */
+    private static final int ROWS = 8, COLUMNS = 12, CELLS = 16, ROOT = 24, FARTHEST = 32, MAXIMUM = 40;
+
+    private static final byte[] ZEROES = new byte[1 << 16];
+
+    private FileChannel channel;
+    private MappedByteBuffer[] buffers, plane;
+
+    private MappedGrid(int rows, int columns, FileChannel channel) {
+        super(rows, columns, false);
+        this.channel = channel;
+        this.grid = prepare();
+        configure();
+    }
+
+    /**
+     * Creates a new grid file, replacing any existing file at {@code path}.
+     */
+    public static MappedGrid create(Path path, int rows, int columns) throws IOException {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException(String.format("Grid cannot have %d rows and %d columns", rows, columns));
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putLong(MAGIC).putInt(rows).putInt(columns).putLong((long) rows * (long) columns).putLong(-1L).rewind();
+        channel.write(header, 0L);
+        return new MappedGrid(rows, columns, channel);
+    }
+
+    /**
+     * Reopens a grid file previously written by {@link #create(Path, int, int)}, with any
+     * distances that were stored in it.
+     */
+    public static MappedGrid open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            if (channel.size() < HEADER || channel.read(header, 0L) < HEADER || header.getLong(0) != MAGIC) {
+                throw new IOException(String.format("File %s is not a maze grid", path));
+            }
+            int rows = header.getInt(ROWS), columns = header.getInt(COLUMNS);
+            long cells = header.getLong(CELLS), root = header.getLong(ROOT), farthest = header.getLong(FARTHEST);
+            if (rows < 0 || columns < 0 || cells != (long) rows * (long) columns || root >= cells ||
+                    (root >= 0 && (farthest < 0 || farthest >= cells))) {
+                throw new IOException(String.format("File %s has an invalid header for %d rows and %d columns", path, rows, columns));
+            }
+            long length = root < 0 ? HEADER + links(cells) : offset(cells) + 4L * cells;
+            if (channel.size() < length) {
+                throw new IOException(String.format("File %s has %d bytes but a grid with %d rows and %d columns needs %d",
+                        path, channel.size(), rows, columns, length));
+            }
+
+            MappedGrid grid = new MappedGrid(rows, columns, channel);
+            if (root >= 0) {
+                grid.map();
+                grid.distances = Optional.of(Distances.of(grid.cell(root), grid.new DistancePlane()));
+                grid.farthest = grid.cell(farthest);
+                grid.maximum = header.getInt(MAXIMUM);
+            }
+            return grid;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Bytes taken by the link nibbles. */
+    private static long links(long cells) { return (cells + 1L) / 2L; }
+
+    /** Offset of the distance plane, after the link nibbles and aligned for {@code int}s. */
+    private static long offset(long cells) { return (HEADER + links(cells) + 7L) & ~7L; }
+
+    private MappedByteBuffer[] map(long offset, long bytes) {
+        int chunks = (int) ((bytes + CHUNK - 1) / CHUNK);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[chunks];
+        try {
+            for (int c = 0; c < chunks; c++) {
+                long start = (long) c * CHUNK;
+                mapped[c] = channel.map(FileChannel.MapMode.READ_WRITE, offset + start, Math.min(CHUNK, bytes - start));
+            }
+        } catch (IOException ioe) {
+            String message = String.format("Failed to map grid file: %s", ioe.getMessage());
+            System.err.println(message);
+            throw new RuntimeException(message, ioe);
+        }
+        return mapped;
+    }
+
+    /**
+     * Maps the distance plane, growing the file to hold it the first time.
+     */
+    private void map() {
+        if (plane == null) plane = map(offset(getCellCount()), 4L * getCellCount());
+    }
+
+    private static void zero(MappedByteBuffer[] buffers) {
+        for (MappedByteBuffer buffer : buffers) {
+            ByteBuffer target = buffer.duplicate();
+            target.clear();
+            while (target.hasRemaining()) {
+                target.put(ZEROES, 0, Math.min(ZEROES.length, target.remaining()));
+            }
+        }
+    }
+
+    @Override
+    protected void allocate() {
+        buffers = map(HEADER, links(getCellCount()));
+    }
+
+    @Override
+    protected void clear() {
+        zero(buffers);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        store(-1L, -1L, 0);
+    }
+
+    /**
+     * @throws UnsupportedOperationException If the size changes, since it is fixed by the file
+     */
+    @Override
+    public void resize(int rows, int columns) {
+        if (rows != this.rows || columns != this.columns) {
+            throw new UnsupportedOperationException("A mapped grid has the size of its file");
+        }
+        reset();
+    }
+
+    @Override
+    protected boolean test(int plane, long index) {
+        long b = index >>> 1;
+        int bit = plane + (int) ((index & 1L) << 2);
+        return (buffers[(int) (b / CHUNK)].get((int) (b % CHUNK)) & (1 << bit)) != 0;
+    }
+
+    @Override
+    protected void set(int plane, long index, boolean value) {
+        long b = index >>> 1;
+        int bit = plane + (int) ((index & 1L) << 2);
+        MappedByteBuffer buffer = buffers[(int) (b / CHUNK)];
+        int offset = (int) (b % CHUNK);
+        int data = buffer.get(offset);
+        buffer.put(offset, (byte) (value ? data | (1 << bit) : data & ~(1 << bit)));
+    }
+
+    /**
+     * Calculates the distances from the root into the plane in the file, replacing any that
+     * were stored, and sets them as the distances of the grid. Only the frontier of the search
+     * is kept on the heap.
+     */
+    public Distances<CompactCell> distancesFrom(CompactCell root) {
+        map();
+        zero(plane);
+        store(-1L, -1L, 0);
+        Distances<CompactCell> distances = Distances.from(root, new DistancePlane());
+        setDistances(distances);
+        store(root.getIndex(), farthest.getIndex(), maximum);
+        return distances;
+    }
+
+    private void store(long root, long farthest, int maximum) {
+        ByteBuffer fields = ByteBuffer.allocate(20);
+        fields.putLong(root).putLong(farthest).putInt(maximum).rewind();
+        try {
+            channel.write(fields, ROOT);
+        } catch (IOException ioe) {
+            String message = String.format("Failed to write grid file: %s", ioe.getMessage());
+            System.err.println(message);
+            throw new RuntimeException(message, ioe);
+        }
+    }
+
+    /**
+     * The distance of each cell, stored plus one so that the zeroes of a new plane mean unset.
+     */
+    private class DistancePlane implements Distances.Plane<CompactCell> {
+        private int read(long index) {
+            long offset = 4L * index;
+            return plane[(int) (offset / CHUNK)].getInt((int) (offset % CHUNK));
+        }
+
+        @Override
+        public boolean containsKey(CompactCell cell) { return read(cell.getIndex()) != 0; }
+
+        @Override
+        public int get(CompactCell cell) {
+            int value = read(cell.getIndex());
+            if (value == 0) throw new NoSuchElementException(String.format("No value for %s", cell));
+            return value - 1;
+        }
+
+        @Override
+        public void put(CompactCell cell, int value) {
+            long offset = 4L * cell.getIndex();
+            plane[(int) (offset / CHUNK)].putInt((int) (offset % CHUNK), value + 1);
+        }
+
+        /**
+         * A view of the cells with a distance, found by scanning the plane in order.
+         */
+        @Override
+        public Set<CompactCell> keySet() {
+            return new AbstractSet<CompactCell>() {
+                @Override
+                public boolean contains(Object other) {
+                    return other instanceof CompactCell && ((CompactCell) other).getGrid() == MappedGrid.this &&
+                            containsKey((CompactCell) other);
+                }
+
+                @Override
+                public Iterator<CompactCell> iterator() {
+                    return new Iterator<CompactCell>() {
+                        private long next = find(0L);
+
+                        private long find(long from) {
+                            while (from < getCellCount() && read(from) == 0) from++;
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() { return next < getCellCount(); }
+
+                        @Override
+                        public CompactCell next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            CompactCell cell = cell(next);
+                            next = find(next + 1);
+                            return cell;
+                        }
+                    };
+                }
+
+                /**
+                 * The number of cells with a distance, or {@link Integer#MAX_VALUE} if there are more.
+                 */
+                @Override
+                public int size() {
+                    long size = 0;
+                    for (long index = 0; index < getCellCount(); index++) {
+                        if (read(index) != 0) size++;
+                    }
+                    return (int) Math.min(size, Integer.MAX_VALUE);
+                }
+            };
+        }
+    }
+
+    CompactCell cell(long index) { return cell((int) (index / columns), (int) (index % columns)); }
+
+    /**
+     * Writes any changes back to the file.
+     */
+    public void flush() {
+        for (MappedByteBuffer buffer : buffers) {
+            buffer.force();
+        }
+        if (plane != null) {
+            for (MappedByteBuffer buffer : plane) {
+                buffer.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
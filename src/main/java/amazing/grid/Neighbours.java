@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.Random;
+
+/**
+ * A reusable buffer of neighbouring {@link Cell cells}, filled by
+ * {@link Cell#getNeighbours(Neighbours)} without allocating.
+ */
+public class Neighbours<C extends CellView<C>> {
+    /** Four adjacent cells, plus four more reached through tunnels. */
+    public static final int MAX = 8;
+
+    private final Object[] cells = new Object[MAX];
+    private int size;
+
+    public void clear() { size = 0; }
+
+    public void add(C cell) { cells[size++] = cell; }
+
+    @SuppressWarnings("unchecked")
+    public C get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index);
+        return (C) cells[index];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public C sample(Random random) {
+        if (size == 0) throw new IllegalArgumentException("No neighbours");
+        return get(random.nextInt(size));
+    }
+}
@@ -23,18 +23,13 @@ package amazing.grid;
 import java.util.Optional;
 import java.util.Set;
 
+@SuppressWarnings("unchecked")
 public class OverCell<O extends OverCell<O,U>, U extends UnderCell<U,O>> extends BasicCell<O> {
-    protected WeaveGrid<O,U> grid;
-
     public OverCell(int row, int column, WeaveGrid<O,U> grid) {
-        this(row, column);
-        this.grid = grid;
-    }
-    private OverCell(int row, int column) {
-        super(row, column);
+        super(row, column, row * grid.getColumns() + column, grid);
     }
 
-    public WeaveGrid<O,U> getGrid() { return grid; }
+    public WeaveGrid<O,U> getGrid() { return (WeaveGrid<O,U>) grid; }
 
     @Override
     public Set<O> getNeighbours() {
@@ -48,6 +43,16 @@ public class OverCell<O extends OverCell<O,U>, U extends UnderCell<U,O>> extends
         return neighbours;
     }
 
+    @Override
+    public void getNeighbours(Neighbours<O> neighbours) {
+        super.getNeighbours(neighbours);
+
+        if (canTunnelNorth()) neighbours.add(north.get().north.get());
+        if (canTunnelSouth()) neighbours.add(south.get().south.get());
+        if (canTunnelEast()) neighbours.add(east.get().east.get());
+        if (canTunnelWest()) neighbours.add(west.get().west.get());
+    }
+
     public boolean canTunnelNorth() {
         return north.isPresent() && north.get().north.isPresent() && north.get().hasHorizontalPassage();
     }
@@ -87,7 +92,7 @@ public class OverCell<O extends OverCell<O,U>, U extends UnderCell<U,O>> extends
         
         if (neighbour.isPresent()) {
             O cell = neighbour.get();
-            grid.tunnelUnder(cell);
+            getGrid().tunnelUnder(cell);
         } else {
             super.link(target, bidi);
         }
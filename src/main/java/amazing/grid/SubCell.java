@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A {@link Cell cell} in a {@link SubGrid sub-grid}, wrapping a cell of the parent grid.
+ *
+ * Positions are relative to the window, and neighbours and links outside the window are
+ * hidden. Links are made on the parent cells, so they are visible in the parent grid.
+ */
+public class SubCell<C extends Cell<C>> implements Cell<SubCell<C>> {
+    private final SubGrid<C> grid;
+    private final C cell;
+
+    SubCell(C cell, SubGrid<C> grid) {
+        this.cell = cell;
+        this.grid = grid;
+    }
+
+    public SubGrid<C> getGrid() { return grid; }
+
+    /**
+     * Returns the underlying cell of the parent grid.
+     */
+    public C getCell() { return cell; }
+
+    public void link(SubCell<C> target, boolean bidi) { cell.link(target.cell, bidi); }
+    public void unlink(SubCell<C> target, boolean bidi) { cell.unlink(target.cell, bidi); }
+
+    public Set<SubCell<C>> getLinks() {
+        Set<SubCell<C>> links = new LinkedHashSet<>();
+        for (C link : cell.getLinks()) {
+            if (grid.contains(link)) links.add(grid.wrap(link));
+        }
+        return links;
+    }
+    public boolean hasLinks() {
+        for (C link : cell.getLinks()) {
+            if (grid.contains(link)) return true;
+        }
+        return false;
+    }
+
+    public boolean linked(SubCell<C> target) { return cell.linked(target.cell); }
+    public boolean linked(Optional<SubCell<C>> target) { return target.isEmpty() ? false : linked(target.get()); }
+
+    public Set<SubCell<C>> getNeighbours() {
+        Set<SubCell<C>> neighbours = new LinkedHashSet<>();
+        for (C neighbour : cell.getNeighbours()) {
+            if (grid.contains(neighbour)) neighbours.add(grid.wrap(neighbour));
+        }
+        return neighbours;
+    }
+    public boolean hasNeighbours() { return hasNorth() || hasSouth() || hasWest() || hasEast(); }
+
+    /**
+     * Wraps each neighbour inside the window, so unlike the parent cells this allocates a view per neighbour.
+     */
+    public void getNeighbours(Neighbours<SubCell<C>> neighbours) {
+        neighbours.clear();
+        Neighbours<C> buffer = grid.buffer;
+        cell.getNeighbours(buffer);
+        for (int i = 0; i < buffer.size(); i++) {
+            if (grid.contains(buffer.get(i))) neighbours.add(grid.wrap(buffer.get(i)));
+        }
+    }
+
+    public boolean hasNorth() { return clip(cell.getNorth()).isPresent(); }
+    public boolean hasSouth() { return clip(cell.getSouth()).isPresent(); }
+    public boolean hasWest() { return clip(cell.getWest()).isPresent(); }
+    public boolean hasEast() { return clip(cell.getEast()).isPresent(); }
+
+    public Optional<SubCell<C>> getNorth() { return clip(cell.getNorth()).map(grid::wrap); }
+    public Optional<SubCell<C>> getSouth() { return clip(cell.getSouth()).map(grid::wrap); }
+    public Optional<SubCell<C>> getWest() { return clip(cell.getWest()).map(grid::wrap); }
+    public Optional<SubCell<C>> getEast() { return clip(cell.getEast()).map(grid::wrap); }
+
+    private Optional<C> clip(Optional<C> neighbour) { return neighbour.filter(grid::contains); }
+
+    public int getRow() { return cell.getRow() - grid.getTop(); }
+    public int getColumn() { return cell.getColumn() - grid.getLeft(); }
+    public int getOrdinal() { return grid.ordinal(cell); }
+
+    public String toString() {
+        return String.format("Cell at (%d, %d)", getColumn(), getRow());
+    }
+
+    public boolean equals(Object other) {
+        return other instanceof SubCell &&
+                this.grid == ((SubCell<?>) other).grid &&
+                Objects.equals(this.cell, ((SubCell<?>) other).cell);
+    }
+
+    public int hashCode() {
+        return cell.hashCode();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ * 
+ * Copyright 2020 by Andrew Donald Kennedy
+ */
+package amazing.grid;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+
+/**
+ * A rectangular window onto another {@link Grid grid}, created by {@link Grid#subGrid(int, int, int, int)}.
+ *
+ * Nothing is copied: the {@link SubCell cells} are created on demand and wrap the parent cells,
+ * with rows, columns and ordinals relative to the window and neighbours outside it clipped.
+ * Any {@link amazing.generator.Generator generator} or renderer can be run on the window, and
+ * the links it makes are visible in the parent. Changes are indexed and reported by the parent,
+ * so dead ends are found by scanning the window.
+ */
+@SuppressWarnings("unchecked")
+public class SubGrid<C extends Cell<C>> extends Grid<SubCell<C>> {
+    private final Grid<C> parent;
+    private final int top, left, layers;
+
+    final Neighbours<C> buffer = new Neighbours<>();
+
+    SubGrid(Grid<C> parent, int top, int left, int rows, int columns) {
+        super(rows, columns, false);
+        if (top < 0 || left < 0 || rows < 0 || columns < 0 ||
+                top + rows > parent.getRows() || left + columns > parent.getColumns()) {
+            throw new IllegalArgumentException(String.format("Window of %d rows and %d columns at (%d, %d) is outside %s",
+                    rows, columns, left, top, parent));
+        }
+        this.parent = parent;
+        this.top = top;
+        this.left = left;
+        this.layers = parent.getSize() == 0 ? 1 : parent.getCapacity() / parent.getSize();
+        shareBudget(parent);
+
+        this.grid = new AbstractList<List<SubCell<C>>>() {
+            @Override
+            public List<SubCell<C>> get(int row) {
+                if (row < 0 || row >= rows) throw new IndexOutOfBoundsException("Row " + row);
+                return new AbstractList<SubCell<C>>() {
+                    @Override
+                    public SubCell<C> get(int column) {
+                        if (column < 0 || column >= columns) throw new IndexOutOfBoundsException("Column " + column);
+                        return wrap(parent.getGrid().get(top + row).get(left + column));
+                    }
+                    @Override
+                    public int size() { return columns; }
+                };
+            }
+            @Override
+            public int size() { return rows; }
+        };
+    }
+
+    public Grid<C> getParent() { return parent; }
+    public int getTop() { return top; }
+    public int getLeft() { return left; }
+
+    SubCell<C> wrap(C cell) { return new SubCell<>(cell, this); }
+
+    /**
+     * Whether a cell of the parent grid lies inside the window.
+     */
+    public boolean contains(C cell) {
+        int row = cell.getRow() - top, column = cell.getColumn() - left;
+        return row >= 0 && row < rows && column >= 0 && column < columns;
+    }
+
+    /**
+     * Maps the parent ordinal onto the window, keeping any {@link UnderCell under-cells} in a second range.
+     */
+    int ordinal(C cell) {
+        int layer = parent.getSize() == 0 ? 0 : cell.getOrdinal() / parent.getSize();
+        return layer * getSize() + (cell.getRow() - top) * columns + (cell.getColumn() - left);
+    }
+
+    @Override
+    public int getCapacity() { return layers * getSize(); }
+
+    @Override
+    protected void configure() { }
+
+    /**
+     * Iterates over the window row by row and then, for a {@link WeaveGrid weave grid},
+     * over the under-cells inside it.
+     */
+    @Override
+    public Iterator<SubCell<C>> iterator() {
+        Iterator<C> cells = window();
+        return new Iterator<SubCell<C>>() {
+            @Override
+            public boolean hasNext() { return cells.hasNext(); }
+
+            @Override
+            public SubCell<C> next() { return wrap(cells.next()); }
+        };
+    }
+
+    /**
+     * Iterates over the parent cells inside the window, in the same order as {@link #iterator()}.
+     */
+    private Iterator<C> window() {
+        WeaveGrid<?,?> weave = parent instanceof WeaveGrid ? (WeaveGrid<?,?>) parent : null;
+        return new Iterator<C>() {
+            private int position = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (position < getSize()) return true;
+                if (weave == null) return false;
+                while (position < 2 * getSize() && weave.getUnder(top + (position - getSize()) / columns, left + (position - getSize()) % columns).isEmpty()) position++;
+                return position < 2 * getSize();
+            }
+
+            @Override
+            public C next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                int p = position++;
+                if (p < getSize()) return parent.getGrid().get(top + p / columns).get(left + p % columns);
+                p -= getSize();
+                return (C) weave.getUnder(top + p / columns, left + p % columns).get();
+            }
+        };
+    }
+
+    /**
+     * Whether a parent cell has exactly one link inside the window.
+     */
+    private boolean deadend(C cell) {
+        int count = 0;
+        for (C link : cell.getLinks()) {
+            if (contains(link) && ++count > 1) return false;
+        }
+        return count == 1;
+    }
+
+    @Override
+    public List<SubCell<C>> getDeadends() {
+        List<SubCell<C>> deadends = new ArrayList<>();
+        for (Iterator<C> cells = window(); cells.hasNext(); ) {
+            C cell = cells.next();
+            if (deadend(cell)) deadends.add(wrap(cell));
+        }
+        return deadends;
+    }
+
+    /**
+     * A live view of the dead ends, found by scanning the window each time it is read.
+     */
+    @Override
+    public List<SubCell<C>> getDeadendsView() {
+        return new AbstractList<SubCell<C>>() {
+            @Override
+            public SubCell<C> get(int index) {
+                Iterator<SubCell<C>> deadends = iterator();
+                for (int i = 0; i < index && deadends.hasNext(); i++) deadends.next();
+                if (index < 0 || !deadends.hasNext()) throw new IndexOutOfBoundsException("Dead end " + index);
+                return deadends.next();
+            }
+
+            @Override
+            public int size() { return getDeadendCount(); }
+
+            @Override
+            public Iterator<SubCell<C>> iterator() {
+                Iterator<C> cells = window();
+                return new Iterator<SubCell<C>>() {
+                    private C next = find();
+
+                    private C find() {
+                        while (cells.hasNext()) {
+                            C cell = cells.next();
+                            if (deadend(cell)) return cell;
+                        }
+                        return null;
+                    }
+
+                    @Override
+                    public boolean hasNext() { return next != null; }
+
+                    @Override
+                    public SubCell<C> next() {
+                        if (next == null) throw new NoSuchElementException();
+                        SubCell<C> cell = wrap(next);
+                        next = find();
+                        return cell;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public int getDeadendCount() {
+        int count = 0;
+        for (Iterator<C> cells = window(); cells.hasNext(); ) {
+            if (deadend(cells.next())) count++;
+        }
+        return count;
+    }
+
+    /**
+     * @throws UnsupportedOperationException If the size changes, since the window is fixed
+     */
+    @Override
+    public void resize(int rows, int columns) {
+        if (rows != this.rows || columns != this.columns) {
+            throw new UnsupportedOperationException("A sub-grid has the size of its window");
+        }
+        reset();
+    }
+
+    @Override
+    public void remove(SubCell<C> cell) { parent.remove(cell.getCell()); }
+
+    /**
+     * Links are made on the parent cells, so the parent decides whether tasks can run in parallel
+     * and rebuilds its dead end index afterwards.
+     */
+    @Override
+    public boolean isConcurrent() { return parent.isConcurrent(); }
+
+    @Override
+    public void concurrently(int tasks, IntConsumer task) { parent.concurrently(tasks, task); }
+
+    /**
+     * Unlinks the cells inside the window through the parent, keeping links that cross its edge,
+     * and clears the metadata, distances and journal of the window. Cells removed from the parent
+     * and the tunnels of a {@link WeaveGrid weave grid} are only restored by resetting the parent,
+     * and the budget is shared with the parent, so both are kept.
+     */
+    @Override
+    public void reset() {
+        for (SubCell<C> cell : this) {
+            if (cell.getCell() instanceof UnderCell) continue;
+            for (SubCell<C> link : cell.getLinks()) {
+                if (!(link.getCell() instanceof UnderCell)) cell.unlink(link, true);
+            }
+        }
+
+        distances = Optional.empty();
+        farthest = null;
+        maximum = 0;
+        braiding = culling = deleted = 0f;
+        metadata.clear();
+        if (journal != null) journal.clear();
+    }
+}
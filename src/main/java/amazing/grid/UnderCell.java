@@ -24,26 +24,28 @@ import java.util.Optional;
 
 public class UnderCell<U extends UnderCell<U,O>, O extends OverCell<O,U>> extends OverCell<O,U> {
     private O over;
+    int slot;
 
     @SuppressWarnings("unchecked")
     public UnderCell(O over) {
-        super(over.row, over.column, over.grid);
+        super(over.row, over.column, over.getGrid());
 
         this.over = over;
+        this.ordinal = grid.getSize() + over.ordinal;
 
         if (over.hasHorizontalPassage()) {
             setNorth(over.getNorth());
-            over.north.get().setSouth((Optional<O>) Optional.of(this));
+            over.north.get().setSouth(self);
             setSouth(over.getSouth());
-            over.south.get().setNorth((Optional<O>) Optional.of(this));
+            over.south.get().setNorth(self);
 
             link(north.get(), true);
             link(south.get(), true);
         } else {
             setEast(over.getEast());
-            over.east.get().setWest((Optional<O>) Optional.of(this));
+            over.east.get().setWest(self);
             setWest(over.getWest());
-            over.west.get().setEast((Optional<O>) Optional.of(this));
+            over.west.get().setEast(self);
 
             link(east.get(), true);
             link(west.get(), true);
@@ -21,14 +21,18 @@
 package amazing.grid;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 @SuppressWarnings("unchecked")
 public class WeaveGrid<O extends OverCell<O,U>, U extends UnderCell<U,O>> extends Grid<O> {
     protected List<U> under;
+    protected Object[] positions;
 
     public WeaveGrid(int rows, int columns) {
         super(rows, columns);
@@ -36,42 +40,103 @@ public class WeaveGrid<O extends OverCell<O,U>, U extends UnderCell<U,O>> extend
 
     @Override
     protected List<List<O>> prepare() {
-        grid = new ArrayList<>();
         under = new ArrayList<>();
-        for (int x = 0; x < rows; x++) {
-            List<O> row = new ArrayList<>();
-            for (int y = 0; y < columns; y++) {
-                row.add((O) new OverCell<>(x, y, this));
-            }
-            grid.add(row);
-        }
-        return grid;
+        positions = new Object[rows * columns];
+        return super.prepare();
+    }
+
+    @Override
+    protected O create(int row, int column) {
+        return (O) new OverCell<>(row, column, this);
+    }
+
+    /**
+     * Discards the under-cells before resetting the over-cells.
+     */
+    @Override
+    public void reset() {
+        under.clear();
+        Arrays.fill(positions, null);
+        super.reset();
+    }
+
+    /**
+     * Resizes the grid, growing the table of under-cell positions if needed.
+     */
+    @Override
+    public void resize(int rows, int columns) {
+        if (positions.length < rows * columns) positions = new Object[rows * columns];
+        super.resize(rows, columns);
     }
 
+    /**
+     * Under-cells use a second range of ordinals after the over-cells.
+     */
+    @Override
+    public int getCapacity() { return 2 * getSize(); }
+
+    /**
+     * Digs a tunnel under a cell. Tasks run {@link #concurrently(int, java.util.function.IntConsumer) concurrently}
+     * on separate windows can tunnel at the same time, so the shared list of under-cells is locked.
+     */
     public void tunnelUnder(O over) {
         U cell = (U) new UnderCell<>(over);
-        under.add(cell);
+        synchronized (under) {
+            cell.slot = under.size();
+            under.add(cell);
+        }
+        positions[over.getOrdinal()] = cell;
+    }
+
+    /**
+     * Returns the under-cell at a position, if one has been tunnelled there.
+     */
+    public Optional<U> getUnder(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return Optional.empty();
+        return Optional.ofNullable((U) positions[row * columns + column]);
     }
 
     public void remove(O o) {
         super.remove(o);
 
-        for (U u : List.copyOf(under)) {
-            if (Objects.equals(o, u.getOver())) {
-                under.remove(u);
+        int position = o.getOrdinal();
+        if (position >= getSize()) return;
+        U u = (U) positions[position];
+        if (Objects.nonNull(u) && Objects.equals(o, u.getOver())) {
+            super.remove((O) u);
+            positions[position] = null;
+            U last = under.remove(under.size() - 1);
+            if (last != u) {
+                last.slot = u.slot;
+                under.set(u.slot, last);
             }
         }
     }
 
+    /**
+     * Iterates over the over-cells in place and then the under-cells.
+     *
+     * Only the under-cells are copied when the iterator is created, so as with a copy of every
+     * cell, cells added by a {@link #tunnelUnder(OverCell) tunnel} during iteration are not
+     * visited, and cells {@link #remove(OverCell) removed} during iteration still are.
+     */
     @Override
     public Iterator<O> iterator() {
-        List<O> cells = new ArrayList<>();
-        for (int x = 0; x < rows; x++) {
-            cells.addAll(grid.get(x));
-        }
-        for (U cell : under) {
-            cells.add((O) cell);
-        }
-        return cells.iterator();
+        Iterator<O> over = super.iterator();
+        return new Iterator<O>() {
+            private Object[] unders = under.toArray();
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() { return over.hasNext() || index < unders.length; }
+
+            @Override
+            public O next() {
+                if (over.hasNext()) return over.next();
+                if (index >= unders.length) throw new NoSuchElementException();
+                return (O) unders[index++];
+            }
+        };
     }
 }
\ No newline at end of file
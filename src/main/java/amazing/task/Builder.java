@@ -20,15 +20,18 @@
  */
 package amazing.task;
 
+import static amazing.Constants.budget;
 import static amazing.Utils.random;
 import static amazing.Utils.choose;
 import static amazing.Utils.ratio;
 
+import java.time.Duration;
 import java.util.concurrent.Callable;
 
 import amazing.generator.BinaryTree;
 import amazing.generator.Sidewinder;
 import amazing.generator.RecursiveBacktracker;
+import amazing.generator.RecursiveDivision;
 import amazing.generator.Generator;
 import amazing.generator.Kruskals;
 import amazing.grid.Cell;
@@ -36,6 +39,7 @@ import amazing.grid.Distances;
 import amazing.grid.OverCell;
 import amazing.grid.UnderCell;
 import amazing.grid.Grid;
+import amazing.grid.GridPool;
 import amazing.grid.WeaveGrid;
 
 /**
@@ -52,14 +56,50 @@ public class Builder<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
         this.generator = generator;
     }
 
+    /**
+     * Builds the maze on a grid drawn from the pool, which the caller should
+     * {@link GridPool#release(Grid) release} when it has finished with the result.
+     */
+    public Builder(GridPool<W> pool, int rows, int columns, Generator<C> generator) {
+        this.grid = pool.acquire(rows, columns);
+        this.generator = generator;
+    }
+
+    /**
+     * Asks the build to stop at its next checkpoint. This can be called from any thread, and the
+     * build then fails with a {@link java.util.concurrent.CancellationException}, as it does
+     * when its thread is interrupted or the {@link amazing.Constants#budget() budget} runs out.
+     */
+    public void cancel() { grid.cancel(); }
+
+    public W getGrid() { return grid; }
+
     @Override
     public W call() {
-        if ((generator instanceof RecursiveBacktracker || generator instanceof Kruskals) && choose(10)) {
+        start().complete();
+        return finish();
+    }
+
+    /**
+     * Prepares the grid and starts the generator, returning its {@link Generator.Steps steps}
+     * so the caller can carve the maze a batch at a time, then calling {@link #finish()}.
+     */
+    public Generator.Steps start() {
+        long budget = budget();
+        grid.setBudget(budget > 0 ? Duration.ofMillis(budget) : null);
+
+        if ((generator instanceof RecursiveBacktracker || generator instanceof Kruskals || generator instanceof RecursiveDivision) && choose(10)) {
             float ratio = ratio() / 4f;
             grid.delete(ratio);
             grid.setMetadata(Grid.DELETED);
         }
-        generator.accept((Grid<C>) grid);
+        return generator.start((Grid<C>) grid);
+    }
+
+    /**
+     * Applies the loops, culling and braiding to the carved maze and computes the distances.
+     */
+    public W finish() {
         grid.setMetadata(Grid.GENERATOR, generator.getName());
         if ((generator instanceof BinaryTree || generator instanceof Sidewinder || generator instanceof Kruskals) && choose(2)) {
             int count = random(1, 4);
@@ -81,6 +121,7 @@ public class Builder<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
             grid.setMetadata(Grid.BRAIDED);
         }
 
+        grid.checkpoint();
         if (!choose(10)) {
             O start = grid.getCell(grid.getRows() / 2, grid.getColumns() / 2).get();
             for (int i = 0; i < grid.getSize() / 5 && !start.hasLinks(); i++) start = grid.getRandom();
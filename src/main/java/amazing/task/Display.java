@@ -29,6 +29,8 @@ import static amazing.Constants.messages;
 import static amazing.Constants.minPause;
 import static amazing.Constants.scale;
 import static amazing.Constants.zoom;
+import static amazing.Constants.evolve;
+import static amazing.Constants.carve;
 import static amazing.Utils.GENERATORS;
 import static amazing.Utils.saveDir;
 import static amazing.Utils.sample;
@@ -48,24 +50,35 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.Frame;
 import java.awt.Window;
+import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 
 import java.awt.image.BufferedImage;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import amazing.Constants;
 import amazing.Constants.Colors;
 import amazing.exec.State;
 import amazing.generator.Generator;
+import amazing.generator.OriginShift;
 import amazing.grid.Cell;
+import amazing.grid.FrozenGrid;
+import amazing.grid.Grid;
+import amazing.grid.GridPool;
+import amazing.grid.Journal;
+import amazing.grid.Neighbours;
 import amazing.grid.OverCell;
 import amazing.grid.UnderCell;
 import amazing.grid.WeaveGrid;
@@ -79,6 +92,7 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
     private Graphics2D g;
     private boolean fullscreen, messages;
     private Font font, msg;
+    private GridPool<W> pool;
 
     private final Object lock = new Object[0];
 
@@ -103,6 +117,7 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
         border = fullscreen ? 0 : (int) (font.getSize2D() / 2f);
         height = screen.getHeight() - (fullscreen ? 0 : (font.getSize() + ((messages ? 5 : 3) * border)));
         created = 0;
+        pool = new GridPool<>(this::grid);
 
         if (messages) {
             state.setStateChangedListener(s -> {
@@ -123,6 +138,9 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private W grid(int rows, int columns) { return (W) new WeaveGrid<>(rows, columns); }
+
     @SuppressWarnings("unchecked")
     public Void call() throws Exception {
         do {
@@ -138,32 +156,44 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
             int size = scale(random(15, 30));
             float inset = choose(20) ? 0f : 0.1f + ratio() / 5f;
             boolean dark = choose(10);
+            boolean evolve = evolve();
+            boolean carving = !evolve && carve();
 
-            // Create the build and render tasks
-            Builder<O, U, C, W> builder = new Builder<>(rows, columns, generator);
+            // Build the maze, or start an evolving maze that is kept until the end of the cycle
             Renderer<O, U, C, W> renderer = new Renderer<>(size, inset, color, dark);
-
-            Future<W> result = exec.submit(builder);
-            W grid = result.get();
-            BufferedImage image = renderer.apply(grid);
+            OriginShift<O> shift = new OriginShift<>();
+            W built;
+            if (evolve) {
+                built = pool.acquire(rows, columns);
+                shift.accept(built);
+                built.setMetadata(Grid.GENERATOR, shift.getName());
+            } else if (carving) {
+                Builder<O, U, C, W> builder = new Builder<>(pool, rows, columns, generator);
+                try {
+                    built = build(builder, renderer, size, dark);
+                } catch (CancellationException ce) {
+                    if (DEBUG) System.out.printf("- Carving of %s abandoned\n", generator.getName());
+                    pool.release(builder.getGrid());
+                    continue;
+                }
+            } else {
+                Builder<O, U, C, W> builder = new Builder<>(pool, rows, columns, generator);
+                Future<W> result = exec.submit(builder);
+                try {
+                    built = await(builder, result);
+                } catch (CancellationException ce) {
+                    // The abandoned grid may still be in use until the build notices, so it is not returned to the pool
+                    if (DEBUG) System.out.printf("- Build of %s abandoned\n", generator.getName());
+                    if (Thread.currentThread().isInterrupted()) break;
+                    continue;
+                }
+            }
+            FrozenGrid grid = built.freeze();
+            if (!evolve) pool.release(built);
+            BufferedImage image = renderer.render(grid);
             created++;
 
-            AffineTransform transform = new AffineTransform();
-            float scale = (float) screen.getWidth() / (float) image.getWidth();
-            if ((int) (image.getHeight() * scale) > height) {
-                scale *= (float) height / (float) (image.getHeight() * scale);
-            }
-            int iw = (int) (image.getWidth() * scale);
-            int ih = (int) (image.getHeight() * scale);
-            float x = 0f, y = 0f;
-            if (iw < screen.getWidth()) {
-                x = (screen.getWidth() - iw) / 2f;
-            }
-            if (ih < height) {
-                y = (height - ih) / 2f;
-            }
-            transform.scale(scale, scale);
-            transform.translate(x / scale, ((messages ? 3 : 1) * border + y) / scale);
+            AffineTransform transform = place(image);
 
             synchronized (lock) {
                 g.setRenderingHint(RenderingHints.KEY_TEXT_LCD_CONTRAST, dark ? 250 : 100);
@@ -192,18 +222,67 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
                 if (DEBUG) System.out.printf("> %s\n", title);
             }
 
-            if (DEBUG) {
-                System.out.printf("- Image %d x %d / Scaled %d x %d / Scale %f / Offset %d, %d\n",
-                        image.getWidth(), image.getHeight(), iw, ih, scale, (int) x, (int) y);
-            }
-
             Duration length = Duration.between(start, Instant.now());
             if (DEBUG) System.out.printf("- Maze generation time %d ms\n", TimeUnit.MILLISECONDS.convert(length));
 
             sleep(pause());
             while (state.paused());
 
-            if (zoom()) {
+            if (evolve) {
+                long elapsed = 0l;
+                int n = 0;
+                long fs = random(5, 10);
+                int batch = random(2, 8), total = 10 * random(50, 500);
+                state.setSteps(total);
+
+                Neighbours<O> changed = new Neighbours<>();
+                List<O> dirty = new ArrayList<>();
+
+                for (int z = 0; !state.skip() && z < total; z++) {
+                    start = Instant.now();
+
+                    // Evolve the maze and redraw only the changed cells and the screen area they cover
+                    dirty.clear();
+                    int top = rows, left = columns, bottom = -1, right = -1;
+                    for (int b = 0; b < batch; b++) {
+                        shift.step(changed);
+                        for (int c = 0; c < changed.size(); c++) {
+                            O cell = changed.get(c);
+                            dirty.add(cell);
+                            top = Math.min(top, cell.getRow());
+                            bottom = Math.max(bottom, cell.getRow());
+                            left = Math.min(left, cell.getColumn());
+                            right = Math.max(right, cell.getColumn());
+                        }
+                    }
+                    if (dirty.isEmpty()) break;
+                    renderer.update(image, built, dirty);
+
+                    Rectangle area = new Rectangle((left - 1) * size, (top - 1) * size, (right - left + 3) * size + 1, (bottom - top + 3) * size + 1);
+                    synchronized (lock) {
+                        Rectangle clip = transform.createTransformedShape(area).getBounds();
+                        clip.grow(1, 1);
+                        g.setClip(clip);
+                        g.drawImage(image, transform, null);
+                        g.setClip(0, 0, screen.getWidth(), screen.getHeight());
+                    }
+
+                    Duration frame = Duration.between(start, Instant.now());
+                    elapsed += TimeUnit.MICROSECONDS.convert(frame);
+                    n++;
+
+                    sleep(fs);
+                    while (state.paused());
+                }
+
+                if (DEBUG && n > 0) {
+                    System.out.printf("- Total processing time for %d frames of %d steps: %d us\n", n, batch, elapsed);
+                    System.out.printf("- Average frame processing time: %d us\n", elapsed / n);
+                }
+
+                if (!state.skip()) sleep(minPause());
+                while (state.paused());
+            } else if (zoom()) {
                 long elapsed = 0l;
                 int n = 0;
                 long fs = random(5, 10);
@@ -288,6 +367,8 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
             }
             while (state.waiting());
 
+            if (evolve) pool.release(built);
+
             if (state.saving()) {
                 String file = save(image, Constants.PNG, saveDir(), "viewer");
                 state.setFile(file);
@@ -300,6 +381,132 @@ public class Display<O extends OverCell<O, U>, U extends UnderCell<U, O>, C exte
         return (Void) null;
     }
 
+    /**
+     * Returns the transform that scales the image to fit the screen, centred between the borders.
+     */
+    private AffineTransform place(BufferedImage image) {
+        AffineTransform transform = new AffineTransform();
+        float scale = (float) screen.getWidth() / (float) image.getWidth();
+        if ((int) (image.getHeight() * scale) > height) {
+            scale *= (float) height / (float) (image.getHeight() * scale);
+        }
+        int iw = (int) (image.getWidth() * scale);
+        int ih = (int) (image.getHeight() * scale);
+        float x = 0f, y = 0f;
+        if (iw < screen.getWidth()) {
+            x = (screen.getWidth() - iw) / 2f;
+        }
+        if (ih < height) {
+            y = (height - ih) / 2f;
+        }
+        transform.scale(scale, scale);
+        transform.translate(x / scale, ((messages ? 3 : 1) * border + y) / scale);
+
+        if (DEBUG) {
+            System.out.printf("- Image %d x %d / Scaled %d x %d / Scale %f / Offset %d, %d\n",
+                    image.getWidth(), image.getHeight(), iw, ih, scale, (int) x, (int) y);
+        }
+        return transform;
+    }
+
+    /**
+     * Builds the maze on this thread, carving it a {@link Generator.Steps step} at a time until
+     * enough new events are in the grid {@link Journal journal} to fill a frame, and drawing the
+     * cells they link, so the first frame is shown as soon as the generator has started. Frames
+     * are sized by events rather than steps, since a step may link one cell or a whole row.
+     *
+     * @throws CancellationException If the maze is skipped, the display is closed or the build runs out of time
+     */
+    private W build(Builder<O, U, C, W> builder, Renderer<O, U, C, W> renderer, int size, boolean dark) {
+        W built = builder.getGrid();
+        Generator.Steps steps = builder.start();
+        Journal journal = built.startJournal();
+        try {
+            BufferedImage image = renderer.render(built);
+            AffineTransform transform = place(image);
+            synchronized (lock) {
+                g.setBackground(dark ? Color.BLACK : Color.WHITE);
+                g.clearRect(0, 0, screen.getWidth(), screen.getHeight());
+                g.drawImage(image, transform, null);
+            }
+
+            int cells = built.getSize(), columns = built.getColumns();
+            int batch = Math.max(1, cells / 500), read = 0;
+            List<O> dirty = new ArrayList<>();
+            boolean more = true;
+            while (more) {
+                if (state.skip() || state.quitting()) {
+                    builder.cancel();
+                    throw new CancellationException("Skipped");
+                }
+                do {
+                    more = steps.advance(1);
+                } while (more && journal.size() - read < batch);
+
+                // Redraw the cells at either end of each new event, under-cells as their over-cell
+                dirty.clear();
+                int top = built.getRows(), left = columns, bottom = -1, right = -1;
+                for (int events = journal.size(); read < events; read++) {
+                    for (int end = 0; end < 2; end++) {
+                        int ordinal = end == 0 ? journal.getCell(read) : journal.getTarget(read);
+                        if (ordinal < 0) continue;
+                        int position = ordinal % cells;
+                        O cell = built.getCell(position / columns, position % columns).get();
+                        dirty.add(cell);
+                        top = Math.min(top, cell.getRow());
+                        bottom = Math.max(bottom, cell.getRow());
+                        left = Math.min(left, cell.getColumn());
+                        right = Math.max(right, cell.getColumn());
+                    }
+                }
+                if (dirty.isEmpty()) continue;
+                renderer.update(image, built, dirty);
+
+                Rectangle area = new Rectangle((left - 1) * size, (top - 1) * size, (right - left + 3) * size + 1, (bottom - top + 3) * size + 1);
+                synchronized (lock) {
+                    Rectangle clip = transform.createTransformedShape(area).getBounds();
+                    clip.grow(1, 1);
+                    g.setClip(clip);
+                    g.drawImage(image, transform, null);
+                    g.setClip(0, 0, screen.getWidth(), screen.getHeight());
+                }
+                while (state.paused());
+            }
+        } finally {
+            built.stopJournal();
+        }
+        return builder.finish();
+    }
+
+    /**
+     * Waits for a build to finish, cancelling it if the maze is skipped or the display is closed.
+     *
+     * @throws CancellationException If the build was cancelled, ran out of time or the waiting thread
+     *         was interrupted, in which case the interrupt is kept set
+     */
+    private W await(Builder<O, U, C, W> builder, Future<W> result) throws ExecutionException {
+        while (true) {
+            if (state.skip() || state.quitting()) {
+                builder.cancel();
+                result.cancel(true);
+                throw new CancellationException("Skipped");
+            }
+            try {
+                return result.get(10, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException te) {
+                continue;
+            } catch (InterruptedException ie) {
+                builder.cancel();
+                result.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted");
+            } catch (ExecutionException ee) {
+                if (ee.getCause() instanceof CancellationException) throw (CancellationException) ee.getCause();
+                throw ee;
+            }
+        }
+    }
+
     public static Frame frame(GraphicsDevice gd) {
         Frame root = new Frame(gd.getDefaultConfiguration());
         root.setName(Constants.VERSION);
@@ -33,9 +33,14 @@ import java.awt.Graphics2D;
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.image.BufferedImage;
+import java.util.Collection;
+import java.util.Optional;
 import java.util.function.Function;
 
 import amazing.grid.Cell;
+import amazing.grid.CellView;
+import amazing.grid.Grid;
+import amazing.grid.GridView;
 import amazing.grid.OverCell;
 import amazing.grid.UnderCell;
 import amazing.grid.WeaveGrid;
@@ -48,6 +53,8 @@ public class Renderer<O extends OverCell<O,U>, U extends UnderCell<U,O>, C exten
     private int size, color;
     private float inset;
     private boolean dark;
+    private BasicStroke stroke;
+    private Font watermark;
 
     public Renderer(int size, float inset, int color, boolean dark) {
         this.size = size;
@@ -56,9 +63,10 @@ public class Renderer<O extends OverCell<O,U>, U extends UnderCell<U,O>, C exten
         this.dark = dark;
     }
 
-    public Color getBackground(W grid, O cell) {
-        if (grid.getDistances().isPresent() && grid.getDistances().get().isSet(cell)) {
-            int distance = grid.getDistances().get().getDistance(cell);
+    public <X extends CellView<X>> Color getBackground(GridView<X> grid, X cell) {
+        Optional<Integer> contents = grid.getContents(cell);
+        if (contents.isPresent()) {
+            int distance = contents.get();
             float intensity = (float) (grid.getMaximum() - distance) / grid.getMaximum();
             int dark = (int) (255 * intensity);
             int light = 255 - dark;
@@ -97,6 +105,14 @@ public class Renderer<O extends OverCell<O,U>, U extends UnderCell<U,O>, C exten
     }
 
     public BufferedImage apply(W grid) {
+        return render(grid);
+    }
+
+    /**
+     * Renders any kind of {@link GridView grid}, such as a {@link amazing.grid.CompactGrid compact grid}
+     * or a {@link amazing.grid.FrozenGrid frozen grid}.
+     */
+    public <X extends CellView<X>> BufferedImage render(GridView<X> grid) {
         int w = 1 + (size * grid.getColumns());
         int h = 1 + (size * grid.getRows());
         int i = (int) (size * inset);
@@ -104,93 +120,138 @@ public class Renderer<O extends OverCell<O,U>, U extends UnderCell<U,O>, C exten
         BufferedImage image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
         Graphics2D g = image.createGraphics();
 
+        stroke = new BasicStroke(0.5f + ratio(), BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER);
         g.setBackground(dark ? Color.BLACK : Color.WHITE);
-        g.setStroke(new BasicStroke(0.5f + ratio(), BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER));
+        g.setStroke(stroke);
         g.clearRect(0, 0, w, h);
 
-        for (O cell : grid) {
-            int x = cell.getColumn() * size;
-            int y = cell.getRow() * size;
-            int[] xy = coordinates(x, y, size, i);
-            int x1 = xy[0];
-            int x2 = xy[1];
-            int x3 = xy[2];
-            int x4 = xy[3];
-            int y1 = xy[4];
-            int y2 = xy[5];
-            int y3 = xy[6];
-            int y4 = xy[7];
-
-            int in = x3 - x2;
-            int out = x2 - x1;
-
-            if (!cell.hasLinks()) continue;
-
-            Color bg = getBackground(grid, cell);
-            g.setColor(bg);
-            g.fillRect(x2, y2, in, in);
-
-            if (cell.linked(cell.getNorth())) {
-                if (i > 0) {
-                    g.setColor(bg);
-                    g.fillRect(x2, y1, in, out);
-                    g.setColor(Color.BLACK);
-                    g.drawLine(x2, y1, x2, y2);
-                    g.drawLine(x3, y1, x3, y2);
+        for (X cell : grid) {
+            draw(g, grid, cell, i);
+        }
+
+        if (watermark()) drawWatermark(g, w, h);
+
+        g.dispose();
+        return image;
+    }
+
+    /**
+     * Redraws cells whose links have changed on an image returned by {@link #render(GridView)}.
+     *
+     * Walls are shared with the neighbouring cells and wide lines spill over into them, so the
+     * block of cells around each changed cell is cleared, and every cell that can draw into it
+     * is redrawn in the same order as a full render, clipped to the block. Only cells laid out
+     * in rows are redrawn, not the under-cells of a {@link WeaveGrid weave grid}.
+     */
+    public <X extends CellView<X>> void update(BufferedImage image, GridView<X> grid, Collection<X> cells) {
+        int i = (int) (size * inset);
+
+        Graphics2D g = image.createGraphics();
+        g.setBackground(dark ? Color.BLACK : Color.WHITE);
+        g.setStroke(stroke == null ? new BasicStroke(1f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER) : stroke);
+
+        for (X cell : cells) {
+            int row = cell.getRow(), column = cell.getColumn();
+            g.setClip((column - 1) * size, (row - 1) * size, 3 * size + 1, 3 * size + 1);
+            g.clearRect((column - 1) * size, (row - 1) * size, 3 * size + 1, 3 * size + 1);
+            for (int r = row - 2; r <= row + 2; r++) {
+                for (int c = column - 2; c <= column + 2; c++) {
+                    Optional<X> redraw = grid.getCell(r, c);
+                    if (redraw.isPresent()) draw(g, grid, redraw.get(), i);
                 }
-            } else {
+            }
+            if (watermark()) drawWatermark(g, image.getWidth(), image.getHeight());
+        }
+
+        g.dispose();
+    }
+
+    private <X extends CellView<X>> void draw(Graphics2D g, GridView<X> grid, X cell, int i) {
+        int x = cell.getColumn() * size;
+        int y = cell.getRow() * size;
+        int[] xy = coordinates(x, y, size, i);
+        int x1 = xy[0];
+        int x2 = xy[1];
+        int x3 = xy[2];
+        int x4 = xy[3];
+        int y1 = xy[4];
+        int y2 = xy[5];
+        int y3 = xy[6];
+        int y4 = xy[7];
+
+        int in = x3 - x2;
+        int out = x2 - x1;
+
+        if (!cell.hasLinks()) return;
+
+        Color bg = getBackground(grid, cell);
+        g.setColor(bg);
+        g.fillRect(x2, y2, in, in);
+
+        if (cell.linked(cell.getNorth())) {
+            if (i > 0) {
+                g.setColor(bg);
+                g.fillRect(x2, y1, in, out);
                 g.setColor(Color.BLACK);
-                g.drawLine(x2, y2, x3, y2);
+                g.drawLine(x2, y1, x2, y2);
+                g.drawLine(x3, y1, x3, y2);
             }
-            if (cell.linked(cell.getSouth())) {
-                if (i > 0) {
-                    g.setColor(bg);
-                    g.fillRect(x2, y3, in, out);
-                    g.setColor(Color.BLACK);
-                    g.drawLine(x2, y3, x2, y4);
-                    g.drawLine(x3, y3, x3, y4);
-                }
-            } else {
+        } else {
+            g.setColor(Color.BLACK);
+            g.drawLine(x2, y2, x3, y2);
+        }
+        if (cell.linked(cell.getSouth())) {
+            if (i > 0) {
+                g.setColor(bg);
+                g.fillRect(x2, y3, in, out);
                 g.setColor(Color.BLACK);
-                g.drawLine(x2, y3, x3, y3);
+                g.drawLine(x2, y3, x2, y4);
+                g.drawLine(x3, y3, x3, y4);
             }
-            if (cell.linked(cell.getWest())) {
-                if (i > 0) {
-                    g.setColor(bg);
-                    g.fillRect(x1, y2, out, in);
-                    g.setColor(Color.BLACK);
-                    g.drawLine(x1, y2, x2, y2);
-                    g.drawLine(x1, y3, x2, y3);
-                }
-            } else {
+        } else {
+            g.setColor(Color.BLACK);
+            g.drawLine(x2, y3, x3, y3);
+        }
+        if (cell.linked(cell.getWest())) {
+            if (i > 0) {
+                g.setColor(bg);
+                g.fillRect(x1, y2, out, in);
                 g.setColor(Color.BLACK);
-                g.drawLine(x2, y2, x2, y3);
+                g.drawLine(x1, y2, x2, y2);
+                g.drawLine(x1, y3, x2, y3);
             }
-            if (cell.linked(cell.getEast())) {
-                if (i > 0) {
-                    g.setColor(bg);
-                    g.fillRect(x3, y2, out, in);
-                    g.setColor(Color.BLACK);
-                    g.drawLine(x3, y2, x4, y2);
-                    g.drawLine(x3, y3, x4, y3);
-                }
-            } else {
+        } else {
+            g.setColor(Color.BLACK);
+            g.drawLine(x2, y2, x2, y3);
+        }
+        if (cell.linked(cell.getEast())) {
+            if (i > 0) {
+                g.setColor(bg);
+                g.fillRect(x3, y2, out, in);
                 g.setColor(Color.BLACK);
-                g.drawLine(x3, y2, x3, y3);
+                g.drawLine(x3, y2, x4, y2);
+                g.drawLine(x3, y3, x4, y3);
             }
+        } else {
+            g.setColor(Color.BLACK);
+            g.drawLine(x3, y2, x3, y3);
         }
+    }
 
-        if (watermark()) {
-            Font watermark = Font.decode(WATERMARK_FONT);
-            watermark = watermark.deriveFont(watermark.getStyle(), (1f - inset) * size * 0.5f);
-            g.setFont(watermark);
-            g.setColor(Color.GRAY);
-            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.95f));
-
-            int bounds = g.getFontMetrics().stringWidth(COPYRIGHT);
-            g.drawString(COPYRIGHT, w - (size / 3) - bounds - (inset * size * 0.5f), h - (size / 3) - (inset * size * 0.5f));
+    /**
+     * Draws the watermark, with the font derived for the cell size the first time it is needed.
+     */
+    private void drawWatermark(Graphics2D g, int w, int h) {
+        if (watermark == null) {
+            Font font = Font.decode(WATERMARK_FONT);
+            watermark = font.deriveFont(font.getStyle(), (1f - inset) * size * 0.5f);
         }
+        g.setFont(watermark);
+        g.setColor(Color.GRAY);
+        g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.95f));
 
-        return image;
+        int bounds = g.getFontMetrics().stringWidth(COPYRIGHT);
+        g.drawString(COPYRIGHT, w - (size / 3) - bounds - (inset * size * 0.5f), h - (size / 3) - (inset * size * 0.5f));
+        g.setComposite(AlphaComposite.SrcOver);
     }
 }
\ No newline at end of file